@@ -0,0 +1,289 @@
+package userapi.bulkdelete;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import userapi.dto.BulkDeleteCriteriaDto;
+import userapi.dto.BulkDeleteJobDto;
+import userapi.dto.UserDto;
+import userapi.event.UserChangedEvent;
+import userapi.handler.exception.InvalidCriteriaException;
+import userapi.producer.KafkaProducer;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Deletes every live user matching a {@link BulkDeleteCriteriaDto} in chunks of {@code bulk-delete.chunk-size}.
+ * Each chunk is one statement that deletes the next ids in order and returns the removed rows
+ * ({@code DELETE ... RETURNING} on PostgreSQL, {@code OLD TABLE (DELETE ...)} elsewhere); their {@code USER_DELETED}
+ * events are then sent together and the job waits once for all of them to be acknowledged before the next chunk.
+ * If Kafka rejects or does not acknowledge them the job fails; the chunk's events stay with {@link KafkaProducer}
+ * for replay.
+ * <p>
+ * Jobs run one at a time on a background thread, at most {@code bulk-delete.max-rows-per-second}, and the last
+ * {@value #RETAINED_JOBS} are kept for {@link #getJob}.
+ * <p>
+ * Each chunk commits before its events are handed to the producer, so a crash in between loses the
+ * {@code USER_DELETED} events of that chunk; consumers that must not miss deletes have to reconcile against the
+ * database.
+ */
+@Component
+@ConditionalOnProperty(name = "sharding.enabled", havingValue = "false", matchIfMissing = true)
+public class UserBulkDeleter {
+    private static final Logger logger = LoggerFactory.getLogger(UserBulkDeleter.class);
+    private static final String COLUMNS = "id, name, email, age, created_at, updated_at";
+    private static final RowMapper<UserDto> ROW_MAPPER = (resultSet, rowNum) -> UserDto.builder()
+            .id(resultSet.getLong("id"))
+            .name(resultSet.getString("name"))
+            .email(resultSet.getString("email"))
+            .age(resultSet.getInt("age"))
+            .createdAt(resultSet.getTimestamp("created_at").toLocalDateTime())
+            .updatedAt(resultSet.getTimestamp("updated_at").toLocalDateTime())
+            .build();
+    private static final int RETAINED_JOBS = 100;
+    private static final int LOG_EVERY_CHUNKS = 20;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final KafkaProducer kafkaProducer;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+    private final int maxRowsPerSecond;
+    private final int maxIds;
+    private final boolean deleteReturning;
+    private final AtomicLong jobIds = new AtomicLong();
+    private final Map<Long, Job> jobs = Collections.synchronizedMap(new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Job> eldest) {
+            return size() > RETAINED_JOBS;
+        }
+    });
+    private ExecutorService executor;
+
+    public UserBulkDeleter(JdbcTemplate jdbcTemplate,
+                           KafkaProducer kafkaProducer,
+                           ApplicationEventPublisher eventPublisher,
+                           @Value("${bulk-delete.chunk-size:500}") int chunkSize,
+                           @Value("${bulk-delete.max-rows-per-second:5000}") int maxRowsPerSecond,
+                           @Value("${bulk-delete.max-ids:10000}") int maxIds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.kafkaProducer = kafkaProducer;
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+        this.maxRowsPerSecond = maxRowsPerSecond;
+        this.maxIds = maxIds;
+        this.deleteReturning = "PostgreSQL".equals(jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName()));
+    }
+
+    /**
+     * Counts the users the criteria would delete right now, without deleting anything.
+     */
+    public BulkDeleteJobDto dryRun(BulkDeleteCriteriaDto criteria) {
+        Filter filter = filter(criteria);
+        return BulkDeleteJobDto.builder()
+                .dryRun(true)
+                .status(BulkDeleteJobDto.Status.COMPLETED)
+                .criteria(criteria)
+                .matched(count(filter))
+                .build();
+    }
+
+    /**
+     * Queues a job deleting the users matching {@code criteria}; its progress is available from {@link #getJob}.
+     */
+    public BulkDeleteJobDto submit(BulkDeleteCriteriaDto criteria) {
+        Filter filter = filter(criteria);
+        Job job = new Job(jobIds.incrementAndGet(), criteria);
+        jobs.put(job.id, job);
+        executor.execute(() -> run(job, filter));
+        return job.toDto();
+    }
+
+    public Optional<BulkDeleteJobDto> getJob(long id) {
+        return Optional.ofNullable(jobs.get(id)).map(Job::toDto);
+    }
+
+    @PostConstruct
+    void start() {
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-bulk-delete");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Ids only grow, so once a chunk has removed every match up to some id the next one starts after it
+     * instead of rescanning the rows that did not match.
+     */
+    private void run(Job job, Filter filter) {
+        job.startedAt = LocalDateTime.now();
+        job.status = BulkDeleteJobDto.Status.RUNNING;
+        String select = "SELECT id FROM users WHERE " + filter.where() + " AND id > ? ORDER BY id LIMIT ?";
+        String sql = deleteReturning
+                ? "DELETE FROM users WHERE id IN (" + select + ") RETURNING " + COLUMNS
+                : "SELECT " + COLUMNS + " FROM OLD TABLE (DELETE FROM users WHERE id IN (" + select + "))";
+        long chunkNanos = TimeUnit.SECONDS.toNanos(chunkSize) / maxRowsPerSecond;
+        BulkDeleteJobDto.Status status = BulkDeleteJobDto.Status.FAILED;
+        try {
+            job.matched = count(filter);
+            long lastId = Long.MIN_VALUE;
+            while (true) {
+                long start = System.nanoTime();
+                List<UserDto> rows = deleteChunk(sql, filter, lastId);
+                if (rows.isEmpty()) break;
+                for (UserDto row : rows) lastId = Math.max(lastId, row.getId());
+                job.deleted += rows.size();
+                job.chunks++;
+                if (job.chunks % LOG_EVERY_CHUNKS == 0) {
+                    logger.info("Bulk delete {}: {}/{} users deleted in {} chunks",
+                            job.id, job.deleted, job.matched, job.chunks);
+                }
+                long pauseNanos = chunkNanos - (System.nanoTime() - start);
+                if (pauseNanos > 0) TimeUnit.NANOSECONDS.sleep(pauseNanos);
+            }
+            status = BulkDeleteJobDto.Status.COMPLETED;
+            logger.info("Bulk delete {} completed: {} users deleted in {} chunks", job.id, job.deleted, job.chunks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.error = "Stopped on shutdown";
+        } catch (RuntimeException e) {
+            logger.error("Bulk delete {} failed after {} users", job.id, job.deleted, e);
+            job.error = e.getMessage();
+        } finally {
+            job.finishedAt = LocalDateTime.now();
+            job.status = status;
+        }
+    }
+
+    /**
+     * Runs one chunk in its own auto-committed statement and publishes the removed rows once it has returned;
+     * the rows are gone before the events are sent.
+     */
+    private List<UserDto> deleteChunk(String sql, Filter filter, long lastId) throws InterruptedException {
+        Object[] args = new Object[filter.args().length + 2];
+        System.arraycopy(filter.args(), 0, args, 0, filter.args().length);
+        args[args.length - 2] = lastId;
+        args[args.length - 1] = chunkSize;
+        List<UserDto> rows = jdbcTemplate.query(sql, ROW_MAPPER, args);
+        if (rows.isEmpty()) return rows;
+        for (UserDto row : rows) {
+            eventPublisher.publishEvent(new UserChangedEvent(UserChangedEvent.Type.DELETED, row));
+        }
+        kafkaProducer.sendUsersAndWait("USER_DELETED", rows);
+        return rows;
+    }
+
+    private long count(Filter filter) {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE " + filter.where(), Long.class,
+                filter.args());
+        return count == null ? 0 : count;
+    }
+
+    private Filter filter(BulkDeleteCriteriaDto criteria) {
+        List<String> conditions = new ArrayList<>();
+        List<Object> args = new ArrayList<>();
+        conditions.add("deleted_at IS NULL");
+        boolean restricted = false;
+
+        String domain = criteria == null || criteria.getEmailDomain() == null ? ""
+                : criteria.getEmailDomain().trim().toLowerCase();
+        if (domain.startsWith("@")) domain = domain.substring(1);
+        if (!domain.isEmpty()) {
+            if (domain.contains("@") || domain.chars().anyMatch(Character::isWhitespace)) {
+                throw new InvalidCriteriaException("Invalid email domain: " + criteria.getEmailDomain());
+            }
+            conditions.add("LOWER(email) LIKE ?");
+            args.add("%@" + domain.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_"));
+            restricted = true;
+        }
+        if (criteria != null && criteria.getCreatedFrom() != null) {
+            conditions.add("created_at >= ?");
+            args.add(Timestamp.valueOf(criteria.getCreatedFrom()));
+            restricted = true;
+        }
+        if (criteria != null && criteria.getCreatedTo() != null) {
+            if (criteria.getCreatedFrom() != null && !criteria.getCreatedFrom().isBefore(criteria.getCreatedTo())) {
+                throw new InvalidCriteriaException("createdFrom must be before createdTo");
+            }
+            conditions.add("created_at < ?");
+            args.add(Timestamp.valueOf(criteria.getCreatedTo()));
+            restricted = true;
+        }
+        if (criteria != null && criteria.getIds() != null && !criteria.getIds().isEmpty()) {
+            List<Long> ids = criteria.getIds().stream().distinct().toList();
+            if (ids.size() > maxIds) {
+                throw new InvalidCriteriaException("At most " + maxIds + " ids can be deleted at once");
+            }
+            conditions.add("id IN (" + String.join(", ", Collections.nCopies(ids.size(), "?")) + ")");
+            args.addAll(ids);
+            restricted = true;
+        }
+        if (!restricted) {
+            throw new InvalidCriteriaException("At least one of emailDomain, createdFrom, createdTo or ids is required");
+        }
+        return new Filter(String.join(" AND ", conditions), args.toArray());
+    }
+
+    private record Filter(String where, Object[] args) {
+    }
+
+    /**
+     * Written only by the bulk delete thread; request threads read snapshots through {@link #toDto}.
+     */
+    private static final class Job {
+        private final long id;
+        private final BulkDeleteCriteriaDto criteria;
+        private volatile BulkDeleteJobDto.Status status = BulkDeleteJobDto.Status.QUEUED;
+        private volatile long matched;
+        private volatile long deleted;
+        private volatile long chunks;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private volatile String error;
+
+        private Job(long id, BulkDeleteCriteriaDto criteria) {
+            this.id = id;
+            this.criteria = criteria;
+        }
+
+        private BulkDeleteJobDto toDto() {
+            return BulkDeleteJobDto.builder()
+                    .id(id)
+                    .status(status)
+                    .criteria(criteria)
+                    .matched(matched)
+                    .deleted(deleted)
+                    .chunks(chunks)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .error(error)
+                    .build();
+        }
+    }
+}
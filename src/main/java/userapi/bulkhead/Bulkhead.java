@@ -0,0 +1,103 @@
+package userapi.bulkhead;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import userapi.dto.BulkheadStatsDto;
+import userapi.handler.exception.BulkheadFullException;
+
+import java.io.Closeable;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Fixed pool of threads with a bounded queue that isolates one class of work from the others.
+ * {@link #submit} fails fast with {@link BulkheadFullException} when the queue is full, and the returned future
+ * fails with {@link TimeoutException} when the task has not finished within the timeout; a task that times out
+ * while still queued is removed and never runs.
+ * <p>
+ * A task that has already started when the timeout fires runs to completion: a write may still commit after the
+ * client got 503, so a 503 from a write means its outcome is unknown.
+ * <p>
+ * A {@link RequestSnapshot} of the caller's request is bound on the bulkhead thread, so HATEOAS links can be built
+ * there without touching the original request.
+ */
+public class Bulkhead implements Closeable {
+    private final String name;
+    private final int threads;
+    private final long timeoutMillis;
+    private final ThreadPoolExecutor executor;
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+
+    public Bulkhead(String name, int threads, int queueCapacity, long timeoutMillis) {
+        this.name = name;
+        this.threads = threads;
+        this.timeoutMillis = timeoutMillis;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "bulkhead-" + name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> work) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        HttpServletRequest request = RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes
+                attributes ? new RequestSnapshot(attributes.getRequest()) : null;
+        FutureTask<Void> task = new FutureTask<>(() -> {
+            if (result.isDone()) return;
+            if (request != null) RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+            try {
+                result.complete(work.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            } finally {
+                RequestContextHolder.resetRequestAttributes();
+            }
+        }, null);
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new BulkheadFullException(name);
+        }
+        result.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS).whenComplete((value, e) -> {
+            if (e instanceof TimeoutException) {
+                timedOut.increment();
+                if (executor.remove(task)) task.cancel(false);
+            }
+        });
+        return result;
+    }
+
+    public BulkheadStatsDto getStats() {
+        int active = executor.getActiveCount();
+        return BulkheadStatsDto.builder()
+                .name(name)
+                .threads(threads)
+                .active(active)
+                .utilization((double) active / threads)
+                .queueDepth(executor.getQueue().size())
+                .queueCapacity(executor.getQueue().size() + executor.getQueue().remainingCapacity())
+                .completed(executor.getCompletedTaskCount())
+                .rejected(rejected.sum())
+                .timedOut(timedOut.sum())
+                .build();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+}
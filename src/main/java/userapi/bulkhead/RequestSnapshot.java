@@ -0,0 +1,178 @@
+package userapi.bulkhead;
+
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.http.HttpServletMapping;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Copy of the parts of a request that link building reads, taken on the request thread. The container recycles
+ * the original request once the async response has completed, which for a timed-out task happens before it runs,
+ * so bulkhead threads only ever see this copy. Anything else throws {@link UnsupportedOperationException}.
+ */
+final class RequestSnapshot extends HttpServletRequestWrapper {
+    private static final HttpServletRequest DETACHED = (HttpServletRequest) Proxy.newProxyInstance(
+            RequestSnapshot.class.getClassLoader(), new Class<?>[]{HttpServletRequest.class},
+            (proxy, method, args) -> {
+                throw new UnsupportedOperationException(method.getName() + " is not available off the request thread");
+            });
+
+    private final ServletContext servletContext;
+    private final String method;
+    private final String characterEncoding;
+    private final String scheme;
+    private final String serverName;
+    private final int serverPort;
+    private final String contextPath;
+    private final String servletPath;
+    private final String pathInfo;
+    private final String requestUri;
+    private final String queryString;
+    private final HttpServletMapping mapping;
+    private final Map<String, Object> attributes = new HashMap<>();
+
+    RequestSnapshot(HttpServletRequest request) {
+        super(DETACHED);
+        this.servletContext = request.getServletContext();
+        this.method = request.getMethod();
+        this.characterEncoding = request.getCharacterEncoding();
+        this.scheme = request.getScheme();
+        this.serverName = request.getServerName();
+        this.serverPort = request.getServerPort();
+        this.contextPath = request.getContextPath();
+        this.servletPath = request.getServletPath();
+        this.pathInfo = request.getPathInfo();
+        this.requestUri = request.getRequestURI();
+        this.queryString = request.getQueryString();
+        this.mapping = request.getHttpServletMapping();
+        for (Enumeration<String> names = request.getAttributeNames(); names.hasMoreElements(); ) {
+            String name = names.nextElement();
+            attributes.put(name, request.getAttribute(name));
+        }
+    }
+
+    @Override
+    public ServletContext getServletContext() {
+        return servletContext;
+    }
+
+    @Override
+    public String getMethod() {
+        return method;
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+        return characterEncoding;
+    }
+
+    @Override
+    public String getScheme() {
+        return scheme;
+    }
+
+    @Override
+    public String getServerName() {
+        return serverName;
+    }
+
+    @Override
+    public int getServerPort() {
+        return serverPort;
+    }
+
+    @Override
+    public boolean isSecure() {
+        return "https".equals(scheme);
+    }
+
+    @Override
+    public String getContextPath() {
+        return contextPath;
+    }
+
+    @Override
+    public String getServletPath() {
+        return servletPath;
+    }
+
+    @Override
+    public String getPathInfo() {
+        return pathInfo;
+    }
+
+    @Override
+    public String getRequestURI() {
+        return requestUri;
+    }
+
+    @Override
+    public StringBuffer getRequestURL() {
+        StringBuffer url = new StringBuffer(scheme).append("://").append(serverName);
+        if (serverPort > 0 && !(("http".equals(scheme) && serverPort == 80) || ("https".equals(scheme) && serverPort == 443))) {
+            url.append(':').append(serverPort);
+        }
+        return url.append(requestUri);
+    }
+
+    @Override
+    public String getQueryString() {
+        return queryString;
+    }
+
+    @Override
+    public HttpServletMapping getHttpServletMapping() {
+        return mapping;
+    }
+
+    @Override
+    public String getHeader(String name) {
+        return null;
+    }
+
+    @Override
+    public Enumeration<String> getHeaders(String name) {
+        return Collections.emptyEnumeration();
+    }
+
+    @Override
+    public Enumeration<String> getHeaderNames() {
+        return Collections.emptyEnumeration();
+    }
+
+    @Override
+    public Object getAttribute(String name) {
+        synchronized (attributes) {
+            return attributes.get(name);
+        }
+    }
+
+    @Override
+    public Enumeration<String> getAttributeNames() {
+        synchronized (attributes) {
+            return Collections.enumeration(List.copyOf(attributes.keySet()));
+        }
+    }
+
+    @Override
+    public void setAttribute(String name, Object value) {
+        synchronized (attributes) {
+            if (value == null) attributes.remove(name);
+            else attributes.put(name, value);
+        }
+    }
+
+    @Override
+    public void removeAttribute(String name) {
+        synchronized (attributes) {
+            attributes.remove(name);
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package userapi.cache;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import userapi.dto.ResponseCacheStatsDto;
+import userapi.dto.UserDto;
+import userapi.event.UserChangedEvent;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fully serialized HAL bodies of {@code GET /api/users/{id}}, keyed by user id.
+ * Total size is bounded by {@code response-cache.max-bytes}; when it is exceeded the least recently used
+ * of a small sample of entries, taken from a random id onwards, is evicted.
+ * <p>
+ * A loader takes a {@link #stamp(Long)} before reading the user and passes it to {@link #put}. Invalidation
+ * bumps the stamp of the id's stripe, so a load that raced with an update or delete is never cached.
+ * Only changes made through this instance invalidate entries, so every entry also expires
+ * {@code response-cache.ttl-ms} after it was stored, which bounds how long changes made by other instances
+ * or directly in the database stay invisible.
+ * <p>
+ * Links are stored without the requester's base URI and {@link CachedResponse#writeTo} inserts the base URI of
+ * the request being served, so a hit carries the same absolute links the controller would have built.
+ */
+@Component
+public class UserResponseCache {
+    private static final int STRIPES = 64;
+    private static final int EVICTION_SAMPLE = 16;
+    private static final int ENTRY_OVERHEAD = 96;
+
+    private final ConcurrentSkipListMap<Long, CachedResponse> entries = new ConcurrentSkipListMap<>();
+    private final AtomicLongArray stamps = new AtomicLongArray(STRIPES);
+    private final AtomicLong totalBytes = new AtomicLong();
+    private final AtomicLong clock = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final ObjectProvider<RequestMappingHandlerAdapter> handlerAdapter;
+    private final long maxBytes;
+    private final long ttlNanos;
+    private volatile boolean enabled;
+    private volatile HttpMessageConverter<Object> halConverter;
+
+    private static final byte[] HREF = "\"href\":\"".getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * @param linkOffsets positions in {@code body} where the base URI of the serving request goes
+     */
+    public record CachedResponse(byte[] body, int[] linkOffsets, long[] lastAccess, long expiresAtNanos) {
+        public int length(byte[] baseUri) {
+            return body.length + linkOffsets.length * baseUri.length;
+        }
+
+        public void writeTo(OutputStream out, byte[] baseUri) throws IOException {
+            int position = 0;
+            for (int offset : linkOffsets) {
+                out.write(body, position, offset - position);
+                out.write(baseUri);
+                position = offset;
+            }
+            out.write(body, position, body.length - position);
+        }
+    }
+
+    public UserResponseCache(ObjectProvider<RequestMappingHandlerAdapter> handlerAdapter,
+                             @Value("${response-cache.enabled:true}") boolean enabled,
+                             @Value("${response-cache.max-bytes:67108864}") long maxBytes,
+                             @Value("${response-cache.ttl-ms:30000}") long ttlMillis) {
+        this.handlerAdapter = handlerAdapter;
+        this.enabled = enabled;
+        this.maxBytes = maxBytes;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+    }
+
+    public CachedResponse get(Long id) {
+        if (!enabled) return null;
+        CachedResponse cached = entries.get(id);
+        if (cached != null && System.nanoTime() - cached.expiresAtNanos() >= 0) {
+            remove(id, cached);
+            cached = null;
+        }
+        if (cached == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        cached.lastAccess()[0] = clock.incrementAndGet();
+        return cached;
+    }
+
+    /**
+     * Base URI of the current request, the same one Spring HATEOAS puts in front of every link.
+     */
+    public static byte[] currentBaseUri() {
+        return ServletUriComponentsBuilder.fromCurrentServletMapping().toUriString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    public long stamp(Long id) {
+        return stamps.get(stripe(id));
+    }
+
+    /**
+     * Stores {@code model} unless the id was invalidated since {@code stamp} was taken. Must run on a request thread,
+     * since the links in {@code model} are matched against the current request's base URI.
+     */
+    public void put(EntityModel<UserDto> model, long stamp) {
+        UserDto user = model.getContent();
+        if (!enabled || user == null || user.getId() == null || RequestContextHolder.getRequestAttributes() == null) {
+            return;
+        }
+
+        byte[] body = serialize(model);
+        if (body == null || body.length + ENTRY_OVERHEAD > maxBytes) return;
+        CachedResponse fresh = withoutBaseUri(body, currentBaseUri());
+        if (fresh == null) return;
+
+        Long id = user.getId();
+        while (true) {
+            if (stamps.get(stripe(id)) != stamp) return;
+            CachedResponse current = entries.get(id);
+            if (current == null ? entries.putIfAbsent(id, fresh) == null : entries.replace(id, current, fresh)) {
+                totalBytes.addAndGet(size(fresh) - (current == null ? 0 : size(current)));
+                break;
+            }
+        }
+        // invalidate bumps the stamp before removing, so a bump we missed above removes this entry or is seen here
+        if (stamps.get(stripe(id)) != stamp) {
+            remove(id, fresh);
+            return;
+        }
+        if (totalBytes.get() > maxBytes) evict();
+    }
+
+    public void invalidate(Long id) {
+        stamps.incrementAndGet(stripe(id));
+        CachedResponse removed = entries.remove(id);
+        if (removed != null) totalBytes.addAndGet(-size(removed));
+    }
+
+    private boolean remove(Long id, CachedResponse response) {
+        if (!entries.remove(id, response)) return false;
+        totalBytes.addAndGet(-size(response));
+        return true;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.type() != UserChangedEvent.Type.CREATED) {
+            invalidate(event.user().getId());
+        }
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        if (!enabled) clear();
+    }
+
+    public void clear() {
+        for (Long id : entries.keySet()) invalidate(id);
+    }
+
+    public ResponseCacheStatsDto getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        return ResponseCacheStatsDto.builder()
+                .enabled(enabled)
+                .hits(hitCount)
+                .misses(missCount)
+                .hitRatio(hitCount + missCount == 0 ? 0 : (double) hitCount / (hitCount + missCount))
+                .entries(entries.size())
+                .bytes(totalBytes.get())
+                .maxBytes(maxBytes)
+                .evictions(evictions.sum())
+                .build();
+    }
+
+    private void evict() {
+        while (totalBytes.get() > maxBytes && !entries.isEmpty()) {
+            Map.Entry<Long, CachedResponse> oldest = null;
+            Iterator<Map.Entry<Long, CachedResponse>> iterator = entries.tailMap(randomId(), true).entrySet().iterator();
+            boolean wrapped = false;
+            for (int i = 0; i < EVICTION_SAMPLE; i++) {
+                if (!iterator.hasNext()) {
+                    // wrap around to the lowest ids, so a start near the end still yields a full sample
+                    if (wrapped) break;
+                    iterator = entries.entrySet().iterator();
+                    wrapped = true;
+                    if (!iterator.hasNext()) break;
+                }
+                Map.Entry<Long, CachedResponse> candidate = iterator.next();
+                if (oldest == null || candidate.getValue().lastAccess()[0] < oldest.getValue().lastAccess()[0]) {
+                    oldest = candidate;
+                }
+            }
+            if (oldest != null && remove(oldest.getKey(), oldest.getValue())) evictions.increment();
+        }
+    }
+
+    private long randomId() {
+        Map.Entry<Long, CachedResponse> first = entries.firstEntry();
+        Map.Entry<Long, CachedResponse> last = entries.lastEntry();
+        if (first == null || last == null || first.getKey() >= last.getKey()) return Long.MIN_VALUE;
+        return ThreadLocalRandom.current().nextLong(first.getKey(), last.getKey() + 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private byte[] serialize(EntityModel<UserDto> model) {
+        HttpMessageConverter<Object> converter = halConverter;
+        if (converter == null) {
+            RequestMappingHandlerAdapter adapter = handlerAdapter.getIfAvailable();
+            if (adapter == null) return null;
+            converter = (HttpMessageConverter<Object>) adapter.getMessageConverters().stream()
+                    .filter(candidate -> candidate.canWrite(EntityModel.class, MediaTypes.HAL_JSON))
+                    .findFirst()
+                    .orElse(null);
+            if (converter == null) return null;
+            halConverter = converter;
+        }
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream(256);
+        HttpHeaders headers = new HttpHeaders();
+        try {
+            converter.write(model, MediaTypes.HAL_JSON, new HttpOutputMessage() {
+                @Override
+                public OutputStream getBody() {
+                    return body;
+                }
+
+                @Override
+                public HttpHeaders getHeaders() {
+                    return headers;
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return body.toByteArray();
+    }
+
+    /**
+     * Cuts {@code baseUri} out of every {@code href}, or returns {@code null} if some link does not start with it.
+     */
+    private CachedResponse withoutBaseUri(byte[] body, byte[] baseUri) {
+        ByteArrayOutputStream stripped = new ByteArrayOutputStream(body.length);
+        int[] offsets = new int[4];
+        int links = 0;
+        int position = 0;
+        for (int i = indexOf(body, HREF, 0); i >= 0; i = indexOf(body, HREF, position)) {
+            int start = i + HREF.length;
+            if (!Arrays.equals(body, start, Math.min(start + baseUri.length, body.length), baseUri, 0, baseUri.length)) {
+                return null;
+            }
+            stripped.write(body, position, start - position);
+            if (links == offsets.length) offsets = Arrays.copyOf(offsets, links * 2);
+            offsets[links++] = stripped.size();
+            position = start + baseUri.length;
+        }
+        stripped.write(body, position, body.length - position);
+        return new CachedResponse(stripped.toByteArray(), Arrays.copyOf(offsets, links),
+                new long[]{clock.incrementAndGet()}, System.nanoTime() + ttlNanos);
+    }
+
+    private static int indexOf(byte[] array, byte[] target, int from) {
+        outer:
+        for (int i = from; i <= array.length - target.length; i++) {
+            for (int j = 0; j < target.length; j++) {
+                if (array[i + j] != target[j]) continue outer;
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    private static long size(CachedResponse response) {
+        return response.body().length + ENTRY_OVERHEAD;
+    }
+
+    private static int stripe(Long id) {
+        return (int) (id ^ (id >>> 32)) & (STRIPES - 1);
+    }
+}
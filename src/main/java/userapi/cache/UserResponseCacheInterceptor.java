@@ -0,0 +1,79 @@
+package userapi.cache;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import userapi.config.BinaryFormatsConfig;
+import userapi.controller.UserController;
+import userapi.hotkeys.HotKeyTracker;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serves {@code GET /api/users/{id}} straight from {@link UserResponseCache} when the client accepts HAL JSON,
+ * so a hit never reaches the controller, the mapper or Jackson. Clients preferring a binary format bypass it.
+ * Hits are counted in {@link HotKeyTracker} here, since the controller never sees them.
+ */
+@Component
+public class UserResponseCacheInterceptor implements HandlerInterceptor {
+    private final UserResponseCache userResponseCache;
+    private final HotKeyTracker hotKeyTracker;
+
+    public UserResponseCacheInterceptor(UserResponseCache userResponseCache, HotKeyTracker hotKeyTracker) {
+        this.userResponseCache = userResponseCache;
+        this.hotKeyTracker = hotKeyTracker;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if (!(handler instanceof HandlerMethod method)
+                || method.getBeanType() != UserController.class
+                || !method.getMethod().getName().equals("getUserById")) {
+            return true;
+        }
+
+        MediaType contentType = negotiate(request.getHeader(HttpHeaders.ACCEPT));
+        if (contentType == null) return true;
+
+        @SuppressWarnings("unchecked")
+        Map<String, String> variables =
+                (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        Long id;
+        try {
+            id = Long.valueOf(variables.get("id"));
+        } catch (RuntimeException e) {
+            return true;
+        }
+
+        UserResponseCache.CachedResponse cached = userResponseCache.get(id);
+        if (cached == null) return true;
+        hotKeyTracker.record(HotKeyTracker.Access.GET, id);
+
+        byte[] baseUri = UserResponseCache.currentBaseUri();
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(contentType.toString());
+        response.setContentLength(cached.length(baseUri));
+        cached.writeTo(response.getOutputStream(), baseUri);
+        return false;
+    }
+
+    private static MediaType negotiate(String accept) {
+        if (accept == null || accept.isBlank()) return MediaTypes.HAL_JSON;
+        List<MediaType> accepted = MediaType.parseMediaTypes(accept);
+        MimeTypeUtils.sortBySpecificity(accepted);
+        for (MediaType mediaType : accepted) {
+            if (mediaType.includes(MediaTypes.HAL_JSON)) return MediaTypes.HAL_JSON;
+            if (mediaType.includes(MediaType.APPLICATION_JSON)) return MediaType.APPLICATION_JSON;
+            if (BinaryFormatsConfig.BINARY_TYPES.stream().anyMatch(mediaType::includes)) return null;
+        }
+        return null;
+    }
+}
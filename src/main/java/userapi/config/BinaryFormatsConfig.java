@@ -0,0 +1,65 @@
+package userapi.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.hateoas.RepresentationModel;
+import org.springframework.hateoas.config.WebConverters;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CBOR ({@code application/cbor}) and Smile ({@code application/x-jackson-smile}) request and response bodies,
+ * chosen through {@code Accept} and {@code Content-Type}. JSON stays the default because the binary converters
+ * are registered after the JSON ones.
+ * <p>
+ * Both use a copy of the HAL object mapper, so {@code EntityModel} and {@code CollectionModel} keep the
+ * {@code _links}/{@code _embedded} shape and dates are written the same way as in JSON.
+ */
+@Configuration
+public class BinaryFormatsConfig implements WebMvcConfigurer {
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+    public static final List<MediaType> BINARY_TYPES = List.of(MediaType.APPLICATION_CBOR, APPLICATION_SMILE);
+
+    private final ObjectMapper objectMapper;
+    private final WebConverters webConverters;
+
+    public BinaryFormatsConfig(ObjectMapper objectMapper, WebConverters webConverters) {
+        this.objectMapper = objectMapper;
+        this.webConverters = webConverters;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter
+                || converter instanceof MappingJackson2SmileHttpMessageConverter);
+        ObjectMapper halMapper = halObjectMapper();
+        converters.add(new MappingJackson2CborHttpMessageConverter(halMapper.copyWith(new CBORFactory())));
+        converters.add(new MappingJackson2SmileHttpMessageConverter(halMapper.copyWith(new SmileFactory())));
+    }
+
+    /**
+     * Spring HATEOAS keeps its HAL mapper inside the JSON converter it augments, so let it augment a throwaway one.
+     */
+    private ObjectMapper halObjectMapper() {
+        MappingJackson2HttpMessageConverter probe = new MappingJackson2HttpMessageConverter(objectMapper);
+        List<HttpMessageConverter<?>> converters = new ArrayList<>(List.of(probe));
+        webConverters.augmentServer(converters);
+        for (HttpMessageConverter<?> converter : converters) {
+            if (converter instanceof MappingJackson2HttpMessageConverter json) {
+                var mappers = json.getObjectMappersForType(RepresentationModel.class);
+                if (mappers.containsKey(MediaTypes.HAL_JSON)) return mappers.get(MediaTypes.HAL_JSON);
+            }
+        }
+        throw new IllegalStateException("HAL object mapper is not available");
+    }
+}
@@ -0,0 +1,24 @@
+package userapi.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import userapi.bulkhead.Bulkhead;
+
+@Configuration
+public class BulkheadConfig {
+
+    @Bean(destroyMethod = "close")
+    public Bulkhead readBulkhead(@Value("${bulkhead.read.threads:16}") int threads,
+                                 @Value("${bulkhead.read.queue-capacity:256}") int queueCapacity,
+                                 @Value("${bulkhead.read.timeout-ms:2000}") long timeoutMillis) {
+        return new Bulkhead("read", threads, queueCapacity, timeoutMillis);
+    }
+
+    @Bean(destroyMethod = "close")
+    public Bulkhead writeBulkhead(@Value("${bulkhead.write.threads:8}") int threads,
+                                  @Value("${bulkhead.write.queue-capacity:64}") int queueCapacity,
+                                  @Value("${bulkhead.write.timeout-ms:10000}") long timeoutMillis) {
+        return new Bulkhead("write", threads, queueCapacity, timeoutMillis);
+    }
+}
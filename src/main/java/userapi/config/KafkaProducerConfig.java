@@ -10,7 +10,9 @@ import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
 import org.springframework.kafka.support.serializer.JsonSerializer;
 import userapi.dto.UserEvent;
+import userapi.producer.spool.EventSpool;
 
+import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -20,6 +22,12 @@ public class KafkaProducerConfig {
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
+    @Value("${kafka.producer.max-block-ms:500}")
+    private long maxBlockMs;
+
+    @Value("${kafka.producer.delivery-timeout-ms:30000}")
+    private int deliveryTimeoutMs;
+
     @Bean
     public ProducerFactory<String, UserEvent> producerFactory() {
         Map<String, Object> configProps = new HashMap<>();
@@ -28,6 +36,9 @@ public class KafkaProducerConfig {
         configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
         configProps.put(JsonSerializer.TYPE_MAPPINGS, "");
         configProps.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, false);
+        configProps.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, maxBlockMs);
+        configProps.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, deliveryTimeoutMs);
+        configProps.put(ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG, Math.min(deliveryTimeoutMs, 30000));
         return new DefaultKafkaProducerFactory<>(
                 configProps,
                 new StringSerializer(),
@@ -39,4 +50,12 @@ public class KafkaProducerConfig {
     public KafkaTemplate<String, UserEvent> kafkaTemplate() {
         return new KafkaTemplate<>(producerFactory());
     }
+
+    @Bean(destroyMethod = "close")
+    public EventSpool eventSpool(@Value("${event-spool.dir}") Path directory,
+                                 @Value("${event-spool.segment-bytes:16777216}") int segmentBytes,
+                                 @Value("${event-spool.max-bytes:268435456}") long maxBytes,
+                                 @Value("${event-spool.fsync:false}") boolean fsync) {
+        return new EventSpool(directory, segmentBytes, maxBytes, fsync);
+    }
 }
\ No newline at end of file
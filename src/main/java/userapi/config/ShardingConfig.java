@@ -0,0 +1,78 @@
+package userapi.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import userapi.sharding.EmailDirectory;
+import userapi.sharding.ShardIdGenerator;
+import userapi.sharding.ShardRebalancer;
+import userapi.sharding.ShardRouter;
+import userapi.sharding.ShardingProperties;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@ConditionalOnProperty(name = "sharding.enabled", havingValue = "true")
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+    /**
+     * Refuses to start while the unsharded {@code users} table still has rows. Those users are not copied to the
+     * shards, so they would answer 404 and their emails could be claimed again. Their ids carry no bucket either,
+     * so moving them means assigning new ids, which has to be a deliberate offline migration.
+     */
+    @Bean(destroyMethod = "close")
+    public ShardRouter shardRouter(ShardingProperties properties, JdbcTemplate jdbcTemplate) {
+        if (properties.getShards().isEmpty()) throw new IllegalStateException("sharding.shards must not be empty");
+        requireNoUnshardedUsers(jdbcTemplate);
+        List<DataSource> dataSources = new ArrayList<>();
+        for (int i = 0; i < properties.getShards().size(); i++) {
+            ShardingProperties.Shard shard = properties.getShards().get(i);
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(shard.getUrl())
+                    .username(shard.getUsername())
+                    .password(shard.getPassword())
+                    .build();
+            dataSource.setPoolName("shard-" + i);
+            dataSource.setMaximumPoolSize(shard.getMaximumPoolSize());
+            dataSources.add(dataSource);
+        }
+        return new ShardRouter(dataSources, properties.getDirectoryShard(), properties.getFanOutThreads());
+    }
+
+    @Bean
+    public ShardIdGenerator shardIdGenerator(ShardingProperties properties) {
+        return new ShardIdGenerator(properties.getNodeId());
+    }
+
+    @Bean
+    public EmailDirectory emailDirectory(ShardRouter shardRouter, ShardingProperties properties) {
+        return new EmailDirectory(shardRouter, properties.getOrphanClaimGraceMillis());
+    }
+
+    @Bean
+    public ShardRebalancer shardRebalancer(ShardRouter shardRouter) {
+        return new ShardRebalancer(shardRouter);
+    }
+
+    static void requireNoUnshardedUsers(JdbcTemplate jdbcTemplate) {
+        Long users;
+        try {
+            users = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class);
+        } catch (BadSqlGrammarException e) {
+            return;
+        }
+        if (users != null && users > 0) {
+            throw new IllegalStateException("sharding.enabled=true but the users table still holds " + users
+                    + " users; migrate them to the shards and empty it before enabling sharding");
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package userapi.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import userapi.cache.UserResponseCacheInterceptor;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+    private final UserResponseCacheInterceptor userResponseCacheInterceptor;
+
+    public WebConfig(UserResponseCacheInterceptor userResponseCacheInterceptor) {
+        this.userResponseCacheInterceptor = userResponseCacheInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(userResponseCacheInterceptor).addPathPatterns("/api/users/*");
+    }
+}
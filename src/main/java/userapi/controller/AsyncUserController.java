@@ -0,0 +1,78 @@
+package userapi.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.RepresentationModel;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import userapi.bulkhead.Bulkhead;
+import userapi.dto.ErrorResponse;
+import userapi.dto.UserDto;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Same operations as {@link UserController}, but executed off the request thread: reads on the read bulkhead and
+ * writes on the write bulkhead, so a burst of slow writes cannot take the threads and connections reads need.
+ */
+@RestController
+@RequestMapping("/api/async/users")
+@Tag(name = "Async User API", description = "Асинхронные варианты User API с раздельными пулами для чтения и записи")
+@ApiResponse(responseCode = "503", description = "Пул перегружен или запрос не выполнен вовремя.",
+        content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = ErrorResponse.class)
+        )
+)
+public class AsyncUserController {
+    private final UserController userController;
+    private final Bulkhead readBulkhead;
+    private final Bulkhead writeBulkhead;
+
+    public AsyncUserController(UserController userController,
+                               @Qualifier("readBulkhead") Bulkhead readBulkhead,
+                               @Qualifier("writeBulkhead") Bulkhead writeBulkhead) {
+        this.userController = userController;
+        this.readBulkhead = readBulkhead;
+        this.writeBulkhead = writeBulkhead;
+    }
+
+    @PostMapping
+    @Operation(summary = "Добавить пользователя", description = "Выполняется в пуле записи")
+    public CompletableFuture<ResponseEntity<EntityModel<UserDto>>> createUser(@RequestBody UserDto userDto) {
+        return writeBulkhead.submit(() -> userController.createUser(userDto));
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Найти пользователя", description = "Выполняется в пуле чтения")
+    public CompletableFuture<ResponseEntity<EntityModel<UserDto>>> getUserById(@PathVariable Long id) {
+        return readBulkhead.submit(() -> userController.getUserById(id));
+    }
+
+    @GetMapping(params = "ids")
+    @Operation(summary = "Найти пользователей", description = "Выполняется в пуле чтения")
+    public CompletableFuture<ResponseEntity<CollectionModel<EntityModel<UserDto>>>> getUsersByIds(
+            @RequestParam List<Long> ids) {
+        return readBulkhead.submit(() -> userController.getUsersByIds(ids));
+    }
+
+    @PutMapping("/{id}/update")
+    @Operation(summary = "Обновить пользователя", description = "Выполняется в пуле записи")
+    public CompletableFuture<ResponseEntity<EntityModel<UserDto>>> updateUser(@PathVariable Long id,
+                                                                              @RequestBody UserDto userDto) {
+        return writeBulkhead.submit(() -> userController.updateUser(id, userDto));
+    }
+
+    @DeleteMapping("/{id}/delete")
+    @Operation(summary = "Удалить пользователя", description = "Выполняется в пуле записи")
+    public CompletableFuture<ResponseEntity<RepresentationModel<?>>> deleteUser(@PathVariable Long id) {
+        return writeBulkhead.submit(() -> userController.deleteUser(id));
+    }
+}
@@ -0,0 +1,47 @@
+package userapi.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import userapi.bulkdelete.UserBulkDeleter;
+import userapi.dto.BulkDeleteCriteriaDto;
+import userapi.dto.BulkDeleteJobDto;
+
+import java.net.URI;
+
+@RestController
+@RequestMapping("/api/admin/users/bulk-delete")
+@ConditionalOnProperty(name = "sharding.enabled", havingValue = "false", matchIfMissing = true)
+@Tag(name = "Bulk delete", description = "Массовое удаление пользователей по условиям")
+@RequiredArgsConstructor
+public class BulkDeleteController {
+    private final UserBulkDeleter userBulkDeleter;
+
+    @PostMapping
+    @Operation(
+            summary = "Удалить пользователей по условиям",
+            description = "С dryRun=true только возвращает число подходящих пользователей. " +
+                    "Иначе запускает фоновую задачу, которая удаляет их пакетами и отправляет USER_DELETED в Kafka"
+    )
+    public ResponseEntity<BulkDeleteJobDto> bulkDelete(@RequestBody BulkDeleteCriteriaDto criteria,
+                                                       @RequestParam(defaultValue = "true") boolean dryRun) {
+        if (dryRun) return ResponseEntity.ok(userBulkDeleter.dryRun(criteria));
+        BulkDeleteJobDto job = userBulkDeleter.submit(criteria);
+        return ResponseEntity.accepted().location(URI.create("/api/admin/users/bulk-delete/" + job.getId())).body(job);
+    }
+
+    @GetMapping("/{jobId}")
+    @Operation(summary = "Ход массового удаления", description = "Число удаленных пользователей и пакетов задачи")
+    public ResponseEntity<BulkDeleteJobDto> getJob(@PathVariable long jobId) {
+        return ResponseEntity.of(userBulkDeleter.getJob(jobId));
+    }
+}
@@ -0,0 +1,29 @@
+package userapi.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import userapi.bulkhead.Bulkhead;
+import userapi.dto.BulkheadStatsDto;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/monitoring/bulkheads")
+@Tag(name = "Bulkheads", description = "Загрузка пулов чтения и записи асинхронного API")
+public class BulkheadController {
+    private final List<Bulkhead> bulkheads;
+
+    public BulkheadController(List<Bulkhead> bulkheads) {
+        this.bulkheads = bulkheads;
+    }
+
+    @GetMapping
+    @Operation(summary = "Состояние bulkhead", description = "Занятость потоков, глубина очереди, отказы и таймауты")
+    public ResponseEntity<List<BulkheadStatsDto>> getStats() {
+        return ResponseEntity.ok(bulkheads.stream().map(Bulkhead::getStats).toList());
+    }
+}
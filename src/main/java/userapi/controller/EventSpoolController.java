@@ -0,0 +1,27 @@
+package userapi.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import userapi.dto.EventSpoolStatsDto;
+import userapi.producer.KafkaProducer;
+
+@RestController
+@RequestMapping("/api/monitoring/event-spool")
+@Tag(name = "Event spool", description = "Локальный спул событий на время недоступности Kafka")
+public class EventSpoolController {
+    private final KafkaProducer kafkaProducer;
+
+    public EventSpoolController(KafkaProducer kafkaProducer) {
+        this.kafkaProducer = kafkaProducer;
+    }
+
+    @GetMapping
+    @Operation(summary = "Состояние спула", description = "Глубина спула, занятое место и счетчики отправки")
+    public ResponseEntity<EventSpoolStatsDto> getStats() {
+        return ResponseEntity.ok(kafkaProducer.getStats());
+    }
+}
@@ -0,0 +1,39 @@
+package userapi.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import userapi.dto.HotKeysDto;
+import userapi.hotkeys.HotKeyTracker;
+
+import java.util.Arrays;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/monitoring/hot-keys")
+@Tag(name = "Hot keys", description = "Самые частые ID пользователей по операциям")
+@RequiredArgsConstructor
+public class HotKeyController {
+    private final HotKeyTracker hotKeyTracker;
+
+    @GetMapping
+    @Operation(summary = "Топ ID по операциям", description = "Оценки Count-Min sketch за последние windowSeconds секунд")
+    public ResponseEntity<List<HotKeysDto>> getHotKeys(@RequestParam(defaultValue = "60") int windowSeconds) {
+        return ResponseEntity.ok(Arrays.stream(HotKeyTracker.Access.values())
+                .map(access -> hotKeyTracker.top(access, windowSeconds))
+                .toList());
+    }
+
+    @PutMapping
+    @Operation(summary = "Включить или выключить сбор")
+    public ResponseEntity<Void> setEnabled(@RequestParam boolean enabled) {
+        hotKeyTracker.setEnabled(enabled);
+        return ResponseEntity.noContent().build();
+    }
+}
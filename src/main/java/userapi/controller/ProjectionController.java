@@ -0,0 +1,29 @@
+package userapi.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import userapi.dto.ProjectionStatsDto;
+import userapi.projection.UserProjection;
+
+@RestController
+@RequestMapping("/api/monitoring/projection")
+@ConditionalOnProperty(name = "projection.enabled", havingValue = "true")
+@Tag(name = "User projection", description = "Read-модель пользователей из топика user-events")
+public class ProjectionController {
+    private final UserProjection userProjection;
+
+    public ProjectionController(UserProjection userProjection) {
+        this.userProjection = userProjection;
+    }
+
+    @GetMapping
+    @Operation(summary = "Состояние read-модели", description = "Размер, отставание консьюмера и доля запросов из read-модели")
+    public ResponseEntity<ProjectionStatsDto> getStats() {
+        return ResponseEntity.ok(userProjection.getStats());
+    }
+}
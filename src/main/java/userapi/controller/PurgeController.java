@@ -0,0 +1,27 @@
+package userapi.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import userapi.dto.PurgeStatsDto;
+import userapi.purge.UserPurger;
+
+@RestController
+@RequestMapping("/api/monitoring/purge")
+@Tag(name = "Soft delete", description = "Мягкое удаление пользователей и фоновая очистка")
+public class PurgeController {
+    private final UserPurger userPurger;
+
+    public PurgeController(UserPurger userPurger) {
+        this.userPurger = userPurger;
+    }
+
+    @GetMapping
+    @Operation(summary = "Состояние очистки", description = "Число помеченных строк и счетчики фоновой очистки")
+    public ResponseEntity<PurgeStatsDto> getStats() {
+        return ResponseEntity.ok(userPurger.getStats());
+    }
+}
@@ -0,0 +1,36 @@
+package userapi.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import userapi.cache.UserResponseCache;
+import userapi.dto.ResponseCacheStatsDto;
+
+@RestController
+@RequestMapping("/api/monitoring/response-cache")
+@Tag(name = "Response cache", description = "Кэш сериализованных ответов GET /api/users/{id}")
+public class ResponseCacheController {
+    private final UserResponseCache userResponseCache;
+
+    public ResponseCacheController(UserResponseCache userResponseCache) {
+        this.userResponseCache = userResponseCache;
+    }
+
+    @GetMapping
+    @Operation(summary = "Статистика кэша", description = "Доля попаданий, количество записей и занятая память")
+    public ResponseEntity<ResponseCacheStatsDto> getStats() {
+        return ResponseEntity.ok(userResponseCache.getStats());
+    }
+
+    @PutMapping
+    @Operation(summary = "Включить или выключить кэш", description = "При выключении кэш очищается")
+    public ResponseEntity<ResponseCacheStatsDto> setEnabled(@RequestParam boolean enabled) {
+        userResponseCache.setEnabled(enabled);
+        return ResponseEntity.ok(userResponseCache.getStats());
+    }
+}
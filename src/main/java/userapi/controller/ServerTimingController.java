@@ -0,0 +1,38 @@
+package userapi.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import userapi.dto.ServerTimingSettingsDto;
+import userapi.timing.ServerTimingFilter;
+
+@RestController
+@RequestMapping("/api/monitoring/server-timing")
+@Tag(name = "Server timing", description = "Время фаз запроса в заголовке Server-Timing")
+public class ServerTimingController {
+    private final ServerTimingFilter serverTimingFilter;
+
+    public ServerTimingController(ServerTimingFilter serverTimingFilter) {
+        this.serverTimingFilter = serverTimingFilter;
+    }
+
+    @GetMapping
+    @Operation(summary = "Настройки и счетчики", description = "Включен ли сбор, порог и доля журналируемых медленных запросов")
+    public ResponseEntity<ServerTimingSettingsDto> getSettings() {
+        return ResponseEntity.ok(serverTimingFilter.getSettings());
+    }
+
+    @PutMapping
+    @Operation(summary = "Изменить настройки", description = "Переданные параметры применяются сразу, без перезапуска")
+    public ResponseEntity<ServerTimingSettingsDto> update(@RequestParam(required = false) Boolean enabled,
+                                                          @RequestParam(required = false) Long slowThresholdMs,
+                                                          @RequestParam(required = false) Double slowLogSampleRate) {
+        serverTimingFilter.update(enabled, slowThresholdMs, slowLogSampleRate);
+        return ResponseEntity.ok(serverTimingFilter.getSettings());
+    }
+}
@@ -0,0 +1,46 @@
+package userapi.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import userapi.dto.RebalanceResultDto;
+import userapi.dto.ShardStatsDto;
+import userapi.service.ShardedUserService;
+import userapi.sharding.ShardRebalancer;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/shards")
+@ConditionalOnProperty(name = "sharding.enabled", havingValue = "true")
+@Tag(name = "Sharding", description = "Распределение пользователей по шардам и перебалансировка")
+public class ShardingController {
+    private final ShardedUserService shardedUserService;
+    private final ShardRebalancer shardRebalancer;
+
+    public ShardingController(ShardedUserService shardedUserService, ShardRebalancer shardRebalancer) {
+        this.shardedUserService = shardedUserService;
+        this.shardRebalancer = shardRebalancer;
+    }
+
+    @GetMapping
+    @Operation(summary = "Статистика шардов", description = "Количество бакетов и пользователей на каждом шарде")
+    public ResponseEntity<List<ShardStatsDto>> getShards() {
+        return ResponseEntity.ok(shardedUserService.getShardStats());
+    }
+
+    @PostMapping("/rebalance")
+    @Operation(
+            summary = "Перебалансировать шарды",
+            description = "Переносит бакеты на недогруженные шарды. С dryRun=true только возвращает план"
+    )
+    public ResponseEntity<RebalanceResultDto> rebalance(@RequestParam(defaultValue = "true") boolean dryRun) {
+        return ResponseEntity.ok(dryRun ? shardRebalancer.plan() : shardRebalancer.rebalance());
+    }
+}
@@ -0,0 +1,37 @@
+package userapi.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import userapi.dto.SlowQueryDto;
+import userapi.monitoring.sql.SlowQueryDetector;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/monitoring/slow-queries")
+@Tag(name = "Slow queries", description = "Самые медленные SQL-запросы, превысившие порог slow-query.threshold-ms")
+public class SlowQueryController {
+    private final SlowQueryDetector slowQueryDetector;
+
+    public SlowQueryController(SlowQueryDetector slowQueryDetector) {
+        this.slowQueryDetector = slowQueryDetector;
+    }
+
+    @GetMapping
+    @Operation(summary = "Топ медленных запросов", description = "Нормализованные запросы, отсортированные по максимальному времени")
+    public ResponseEntity<List<SlowQueryDto>> getSlowQueries() {
+        return ResponseEntity.ok(slowQueryDetector.getSlowest());
+    }
+
+    @DeleteMapping
+    @Operation(summary = "Сбросить статистику медленных запросов")
+    public ResponseEntity<Void> resetSlowQueries() {
+        slowQueryDetector.reset();
+        return ResponseEntity.noContent().build();
+    }
+}
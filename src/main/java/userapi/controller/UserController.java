@@ -6,15 +6,27 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.RepresentationModel;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import userapi.cache.UserResponseCache;
 import userapi.dto.ErrorResponse;
 import userapi.dto.UserDto;
-import userapi.service.UserServiceImpl;
+import userapi.handler.exception.InvalidCriteriaException;
+import userapi.hotkeys.HotKeyTracker;
+import userapi.projection.UserProjection;
+import userapi.service.UserService;
+import userapi.timing.Phase;
+import userapi.timing.ServerTiming;
+
+import java.net.URI;
+import java.util.List;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
@@ -23,18 +35,28 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 @RequestMapping("/api/users")
 @Tag(name = "User API", description = "Api для работы с пользователями. Поддерживает CRUD операции и отправку event в Kafka")
 public class UserController {
-    private final UserServiceImpl userService;
+    private final UserService userService;
+    private final UserResponseCache userResponseCache;
+    private final UserProjection userProjection;
+    private final HotKeyTracker hotKeyTracker;
+    private final int maxIdsPerRequest;
 
     @Autowired
-    public UserController(UserServiceImpl userService) {
+    public UserController(UserService userService, UserResponseCache userResponseCache,
+                          ObjectProvider<UserProjection> userProjection, HotKeyTracker hotKeyTracker,
+                          @Value("${users.max-ids-per-request:1000}") int maxIdsPerRequest) {
         this.userService = userService;
+        this.userResponseCache = userResponseCache;
+        this.userProjection = userProjection.getIfAvailable();
+        this.hotKeyTracker = hotKeyTracker;
+        this.maxIdsPerRequest = maxIdsPerRequest;
     }
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     @Operation(
             summary = "Добавить пользователя",
-            description = "Добавляет пользователя в базу данных и отправляет UserEvent (event и email) в Kafka"
+            description = "Добавляет пользователя в базу данных и отправляет UserEvent (событие и снимок пользователя) в Kafka"
 
     )
     @ApiResponses({
@@ -68,9 +90,11 @@ public class UserController {
     public ResponseEntity<EntityModel<UserDto>> createUser(@RequestBody UserDto userDto) {
         UserDto user = userService.createUser(userDto);
         EntityModel<UserDto> entityModel = getUserDtoEntityModel(user);
+        long start = ServerTiming.start();
+        URI location = linkTo(methodOn(UserController.class).getUserById(user.getId())).toUri();
+        ServerTiming.stop(Phase.HATEOAS, start);
 
-        return ResponseEntity.created(linkTo(methodOn(UserController.class).getUserById(user.getId())).toUri())
-                .body(entityModel);
+        return ResponseEntity.created(location).body(entityModel);
     }
 
     @GetMapping("/{id}")
@@ -101,12 +125,50 @@ public class UserController {
             )
     })
     public ResponseEntity<EntityModel<UserDto>> getUserById(@PathVariable Long id) {
-        UserDto user = userService.getUserById(id);
-        EntityModel<UserDto> entityModel = getUserDtoEntityModel(user);
+        hotKeyTracker.record(HotKeyTracker.Access.GET, id);
+        UserDto projected = userProjection == null ? null : userProjection.find(id).orElse(null);
+        if (projected != null) return ResponseEntity.ok(getUserDtoEntityModel(projected));
+
+        // The projection may lag behind the database, so only responses read from the database are cached.
+        long stamp = userResponseCache.stamp(id);
+        EntityModel<UserDto> entityModel = getUserDtoEntityModel(userService.getUserById(id));
+        userResponseCache.put(entityModel, stamp);
 
         return ResponseEntity.ok(entityModel);
     }
 
+    @GetMapping(params = "ids")
+    @Operation(
+            summary = "Найти пользователей",
+            description = "Находит пользователей по списку ID. Несуществующие ID пропускаются, порядок сохраняется"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Найденные пользователи."),
+            @ApiResponse(responseCode = "400", description = "Запрошено слишком много ID.",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "500", description = "Внутренняя ошибка сервера.",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)
+                    )
+            )
+    })
+    public ResponseEntity<CollectionModel<EntityModel<UserDto>>> getUsersByIds(@RequestParam List<Long> ids) {
+        if (ids.size() > maxIdsPerRequest) {
+            throw new InvalidCriteriaException("At most " + maxIdsPerRequest + " ids can be requested at once");
+        }
+        List<EntityModel<UserDto>> users = userService.getUsersByIds(ids).stream()
+                .map(UserController::getUserDtoEntityModel)
+                .toList();
+
+        return ResponseEntity.ok(CollectionModel.of(users,
+                linkTo(methodOn(UserController.class).getUsersByIds(ids)).withSelfRel()));
+    }
+
     @PutMapping("/{id}/update")
     @Operation(
             summary = "Обновить пользователя",
@@ -142,6 +204,7 @@ public class UserController {
             )
     })
     public ResponseEntity<EntityModel<UserDto>> updateUser(@PathVariable Long id, @RequestBody UserDto userDto) {
+        hotKeyTracker.record(HotKeyTracker.Access.UPDATE, id);
         UserDto user = userService.updateUser(id, userDto);
         EntityModel<UserDto> entityModel = getUserDtoEntityModel(user);
 
@@ -152,7 +215,7 @@ public class UserController {
     @Operation(
             summary = "Удалить пользователя",
             description = "Находит пользователя по ID из базы данных. " +
-                    "Удаляет пользователя из базы данных и отправляет UserEvent (event и email) в Kafka."
+                    "Удаляет пользователя из базы данных и отправляет UserEvent (событие и снимок пользователя) в Kafka."
     )
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Пользователь успешно удален."),
@@ -160,6 +223,7 @@ public class UserController {
             @ApiResponse(responseCode = "500", description = "Внутренняя ошибка сервера.")
     })
     public ResponseEntity<RepresentationModel<?>> deleteUser(@PathVariable Long id) {
+        hotKeyTracker.record(HotKeyTracker.Access.DELETE, id);
         userService.deleteUser(id);
         RepresentationModel<?> representationModel = new RepresentationModel<>();
         representationModel.add(linkTo(methodOn(UserController.class).createUser(null)).withRel("create-user"));
@@ -168,10 +232,12 @@ public class UserController {
     }
 
     private static EntityModel<UserDto> getUserDtoEntityModel(UserDto user) {
+        long start = ServerTiming.start();
         EntityModel<UserDto> entityModel = EntityModel.of(user);
         entityModel.add(linkTo(methodOn(UserController.class).getUserById(user.getId())).withSelfRel());
         entityModel.add(linkTo(methodOn(UserController.class).updateUser(user.getId(), user)).withRel("update"));
         entityModel.add(linkTo(methodOn(UserController.class).deleteUser(user.getId())).withRel("delete"));
+        ServerTiming.stop(Phase.HATEOAS, start);
         return entityModel;
     }
 }
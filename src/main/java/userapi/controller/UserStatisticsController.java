@@ -0,0 +1,41 @@
+package userapi.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import userapi.dto.UserStatsDto;
+import userapi.stats.UserStatistics;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/users/stats")
+@ConditionalOnExpression("${stats.enabled:true} and !${sharding.enabled:false}")
+@Tag(name = "User statistics", description = "Агрегаты по пользователям без сканирования таблицы")
+public class UserStatisticsController {
+    private static final int MAX_DAYS = 366;
+
+    private final UserStatistics userStatistics;
+
+    public UserStatisticsController(UserStatistics userStatistics) {
+        this.userStatistics = userStatistics;
+    }
+
+    @GetMapping
+    @Operation(summary = "Статистика пользователей", description = "Всего, возрастные группы и регистрации по дням за последние days дней")
+    public ResponseEntity<UserStatsDto> getStats(@RequestParam(defaultValue = "30") int days) {
+        return ResponseEntity.ok(userStatistics.getStats(Math.max(1, Math.min(days, MAX_DAYS))));
+    }
+
+    @PostMapping("/reconcile")
+    @Operation(summary = "Сверить с базой данных", description = "Сканирует таблицу users и возвращает расхождения")
+    public ResponseEntity<Map<String, Long>> reconcile() {
+        return ResponseEntity.ok(userStatistics.reconcile());
+    }
+}
@@ -0,0 +1,25 @@
+package userapi.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Builder
+@Data
+@Schema(description = "Условия массового удаления пользователей; заданные условия объединяются через AND")
+public class BulkDeleteCriteriaDto {
+    @Schema(description = "Домен email, например test.example.com", example = "test.example.com")
+    private String emailDomain;
+
+    @Schema(description = "Создан не раньше (включительно)")
+    private LocalDateTime createdFrom;
+
+    @Schema(description = "Создан раньше (не включительно)")
+    private LocalDateTime createdTo;
+
+    @Schema(description = "Список ID пользователей")
+    private List<Long> ids;
+}
@@ -0,0 +1,44 @@
+package userapi.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Builder
+@Data
+@Schema(description = "Пробный запуск или ход массового удаления пользователей")
+public class BulkDeleteJobDto {
+    public enum Status { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    @Schema(description = "ID задачи; пусто для пробного запуска")
+    private Long id;
+
+    @Schema(description = "Только подсчет, без удаления")
+    private boolean dryRun;
+
+    @Schema(description = "Состояние задачи")
+    private Status status;
+
+    @Schema(description = "Условия удаления")
+    private BulkDeleteCriteriaDto criteria;
+
+    @Schema(description = "Подходящих пользователей на момент запуска")
+    private long matched;
+
+    @Schema(description = "Удалено пользователей")
+    private long deleted;
+
+    @Schema(description = "Выполнено пакетов удаления")
+    private long chunks;
+
+    @Schema(description = "Время начала удаления")
+    private LocalDateTime startedAt;
+
+    @Schema(description = "Время завершения")
+    private LocalDateTime finishedAt;
+
+    @Schema(description = "Причина ошибки")
+    private String error;
+}
@@ -0,0 +1,37 @@
+package userapi.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+@Builder
+@Data
+@Schema(description = "Загрузка пула потоков bulkhead")
+public class BulkheadStatsDto {
+    @Schema(description = "Имя bulkhead (read или write)")
+    private String name;
+
+    @Schema(description = "Размер пула потоков")
+    private int threads;
+
+    @Schema(description = "Потоков, занятых задачами")
+    private int active;
+
+    @Schema(description = "Доля занятых потоков")
+    private double utilization;
+
+    @Schema(description = "Задач в очереди")
+    private int queueDepth;
+
+    @Schema(description = "Емкость очереди")
+    private int queueCapacity;
+
+    @Schema(description = "Выполнено задач")
+    private long completed;
+
+    @Schema(description = "Отклонено задач из-за заполненной очереди")
+    private long rejected;
+
+    @Schema(description = "Задач, не уложившихся в таймаут")
+    private long timedOut;
+}
@@ -0,0 +1,31 @@
+package userapi.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+@Builder
+@Data
+@Schema(description = "Состояние локального спула событий Kafka")
+public class EventSpoolStatsDto {
+    @Schema(description = "Доступен ли Kafka producer")
+    private boolean healthy;
+
+    @Schema(description = "Событий в спуле, ожидающих отправки")
+    private long depth;
+
+    @Schema(description = "Количество файлов-сегментов")
+    private int segments;
+
+    @Schema(description = "Занято на диске, байт")
+    private long diskBytes;
+
+    @Schema(description = "Всего событий записано в спул")
+    private long spooled;
+
+    @Schema(description = "Всего событий отправлено из спула")
+    private long drained;
+
+    @Schema(description = "Событий, не поместившихся в спул")
+    private long rejected;
+}
@@ -0,0 +1,40 @@
+package userapi.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Builder
+@Data
+@Schema(description = "Самые частые ID пользователей за скользящее окно")
+public class HotKeysDto {
+    @Schema(description = "Операция: GET, UPDATE или DELETE")
+    private String operation;
+
+    @Schema(description = "Длина окна, с")
+    private long windowSeconds;
+
+    @Schema(description = "Обращений за окно")
+    private long accesses;
+
+    @Schema(description = "Самые частые ID по убыванию оценки")
+    private List<HotKey> keys;
+
+    @Schema(description = "Включен ли сбор")
+    private boolean enabled;
+
+    @Builder
+    @Data
+    public static class HotKey {
+        @Schema(description = "ID пользователя")
+        private long id;
+
+        @Schema(description = "Оценка числа обращений (не меньше фактического)")
+        private long count;
+
+        @Schema(description = "Доля от всех обращений за окно")
+        private double share;
+    }
+}
@@ -0,0 +1,37 @@
+package userapi.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+@Builder
+@Data
+@Schema(description = "Состояние read-модели пользователей, построенной из топика user-events")
+public class ProjectionStatsDto {
+    @Schema(description = "Дочитаны ли события, бывшие в топике на момент старта")
+    private boolean caughtUp;
+
+    @Schema(description = "Отдаются ли запросы из read-модели (отставание в допустимых пределах)")
+    private boolean fresh;
+
+    @Schema(description = "Пользователей в read-модели")
+    private int users;
+
+    @Schema(description = "Отставание консьюмера, сообщений (-1, если неизвестно)")
+    private long lag;
+
+    @Schema(description = "Время с последнего успешного poll, мс (-1, если poll еще не было)")
+    private long lastPollAgeMs;
+
+    @Schema(description = "Применено событий")
+    private long applied;
+
+    @Schema(description = "Пропущено событий без снимка пользователя")
+    private long skipped;
+
+    @Schema(description = "Запросов, отданных из read-модели")
+    private long hits;
+
+    @Schema(description = "Запросов, переданных в базу данных")
+    private long fallbacks;
+}
@@ -0,0 +1,34 @@
+package userapi.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+@Builder
+@Data
+@Schema(description = "Состояние мягкого удаления и фоновой очистки пользователей")
+public class PurgeStatsDto {
+    @Schema(description = "Включено ли мягкое удаление")
+    private boolean enabled;
+
+    @Schema(description = "Помеченных строк, ожидающих удаления")
+    private Long pending;
+
+    @Schema(description = "Пользователей помечено удаленными")
+    private long marked;
+
+    @Schema(description = "Строк удалено фоновой очисткой")
+    private long purged;
+
+    @Schema(description = "Строк удалено при повторной регистрации того же email")
+    private long reclaimed;
+
+    @Schema(description = "Выполнено пакетов очистки")
+    private long batches;
+
+    @Schema(description = "Размер пакета очистки")
+    private int batchSize;
+
+    @Schema(description = "Ограничение скорости очистки, строк/с")
+    private int maxRowsPerSecond;
+}
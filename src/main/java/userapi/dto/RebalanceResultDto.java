@@ -0,0 +1,36 @@
+package userapi.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Builder
+@Data
+@Schema(description = "План или результат перебалансировки бакетов между шардами")
+public class RebalanceResultDto {
+    @Schema(description = "Только план, без переноса данных")
+    private boolean dryRun;
+
+    @Schema(description = "Перемещения бакетов")
+    private List<BucketMove> moves;
+
+    @Schema(description = "Перенесено бакетов")
+    private int movedBuckets;
+
+    @Schema(description = "Перенесено пользователей")
+    private long movedUsers;
+
+    @Schema(description = "Завершено прерванных ранее переносов")
+    private int resumedMoves;
+
+    @Data
+    @AllArgsConstructor
+    public static class BucketMove {
+        private int bucket;
+        private int fromShard;
+        private int toShard;
+    }
+}
@@ -0,0 +1,34 @@
+package userapi.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+@Builder
+@Data
+@Schema(description = "Статистика кэша сериализованных ответов")
+public class ResponseCacheStatsDto {
+    @Schema(description = "Включен ли кэш")
+    private boolean enabled;
+
+    @Schema(description = "Попадания в кэш")
+    private long hits;
+
+    @Schema(description = "Промахи кэша")
+    private long misses;
+
+    @Schema(description = "Доля попаданий")
+    private double hitRatio;
+
+    @Schema(description = "Количество записей")
+    private int entries;
+
+    @Schema(description = "Занятая память, байт")
+    private long bytes;
+
+    @Schema(description = "Лимит памяти, байт")
+    private long maxBytes;
+
+    @Schema(description = "Вытеснено записей")
+    private long evictions;
+}
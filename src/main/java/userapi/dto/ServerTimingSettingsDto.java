@@ -0,0 +1,28 @@
+package userapi.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+@Builder
+@Data
+@Schema(description = "Настройки заголовка Server-Timing и журнала медленных запросов")
+public class ServerTimingSettingsDto {
+    @Schema(description = "Включен ли сбор времени по фазам")
+    private boolean enabled;
+
+    @Schema(description = "Порог медленного запроса, мс")
+    private long slowThresholdMs;
+
+    @Schema(description = "Доля медленных запросов, попадающих в журнал")
+    private double slowLogSampleRate;
+
+    @Schema(description = "Запросов с замером времени")
+    private long timedRequests;
+
+    @Schema(description = "Медленных запросов")
+    private long slowRequests;
+
+    @Schema(description = "Медленных запросов, записанных в журнал")
+    private long loggedRequests;
+}
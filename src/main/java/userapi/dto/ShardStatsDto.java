@@ -0,0 +1,19 @@
+package userapi.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+@Builder
+@Data
+@Schema(description = "Распределение данных по шарду")
+public class ShardStatsDto {
+    @Schema(description = "Номер шарда")
+    private int shard;
+
+    @Schema(description = "Количество бакетов, закрепленных за шардом")
+    private int buckets;
+
+    @Schema(description = "Количество пользователей на шарде")
+    private long users;
+}
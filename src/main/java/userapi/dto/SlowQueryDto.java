@@ -0,0 +1,33 @@
+package userapi.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Builder
+@Data
+@Schema(description = "Статистика медленного SQL-запроса")
+public class SlowQueryDto {
+    @Schema(description = "Нормализованный SQL")
+    private String sql;
+
+    @Schema(description = "Сколько раз запрос превысил порог")
+    private long count;
+
+    @Schema(description = "Максимальное время выполнения, мс")
+    private double maxMillis;
+
+    @Schema(description = "Среднее время выполнения, мс")
+    private double avgMillis;
+
+    @Schema(description = "Метод репозитория, вызвавший самый медленный запрос")
+    private String caller;
+
+    @Schema(description = "Параметры самого медленного запроса")
+    private List<String> parameters;
+
+    @Schema(description = "Количество строк самого медленного запроса")
+    private long rows;
+}
@@ -4,12 +4,33 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+
+/**
+ * Message on the {@code user-events} topic. Besides the event type and email it carries the full user snapshot
+ * (the state after a create or update, the last state before a delete), so consumers can rebuild user state.
+ */
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class UserEvent {
     private String event;
     private String email;
+    private Long id;
+    private String name;
+    private Integer age;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public UserEvent(String event, String email) {
+        this.event = event;
+        this.email = email;
+    }
+
+    public static UserEvent of(String event, UserDto user) {
+        return new UserEvent(event, user.getEmail(), user.getId(), user.getName(), user.getAge(),
+                user.getCreatedAt(), user.getUpdatedAt());
+    }
 
     public String getEvent() {
         return event;
@@ -26,4 +47,4 @@ public class UserEvent {
     public void setEmail(String email) {
         this.email = email;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,38 @@
+package userapi.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Builder
+@Data
+@Schema(description = "Статистика пользователей, поддерживаемая в памяти")
+public class UserStatsDto {
+    @Schema(description = "Всего пользователей")
+    private long total;
+
+    @Schema(description = "Средний возраст")
+    private double averageAge;
+
+    @Schema(description = "Пользователей по возрастным группам")
+    private Map<String, Long> ageBuckets;
+
+    @Schema(description = "Пользователей по дню регистрации (удаленные не учитываются)")
+    private Map<LocalDate, Long> dailySignups;
+
+    @Schema(description = "Время начального заполнения из базы данных")
+    private LocalDateTime seededAt;
+
+    @Schema(description = "Время последней сверки с базой данных")
+    private LocalDateTime lastReconciledAt;
+
+    @Schema(description = "Расхождения, найденные последней сверкой (база минус память)")
+    private Map<String, Long> lastDrift;
+
+    @Schema(description = "Исправлено расхождений, подтвержденных двумя сверками подряд")
+    private long corrections;
+}
@@ -0,0 +1,16 @@
+package userapi.event;
+
+import userapi.dto.UserDto;
+
+/**
+ * Published by {@link userapi.service.UserService} implementations inside the write transaction.
+ * Listeners that must only see committed changes use {@code @TransactionalEventListener}.
+ * {@code previous} is the state before an update and {@code null} for other types.
+ */
+public record UserChangedEvent(Type type, UserDto user, UserDto previous) {
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    public UserChangedEvent(Type type, UserDto user) {
+        this(type, user, null);
+    }
+}
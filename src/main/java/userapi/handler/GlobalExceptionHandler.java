@@ -5,9 +5,15 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import userapi.dto.ErrorResponse;
+import userapi.handler.exception.BulkheadFullException;
 import userapi.handler.exception.EmailExistsException;
+import userapi.handler.exception.EventSpoolFullException;
+import userapi.handler.exception.GroupCommitTimeoutException;
+import userapi.handler.exception.InvalidCriteriaException;
 import userapi.handler.exception.UserNotFoundException;
 
+import java.util.concurrent.TimeoutException;
+
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
@@ -23,6 +29,36 @@ public class GlobalExceptionHandler {
         return createErrorResponse(HttpStatus.CONFLICT, e.getMessage());
     }
 
+    @ExceptionHandler(InvalidCriteriaException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleInvalidCriteria(InvalidCriteriaException e) {
+        return createErrorResponse(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+
+    @ExceptionHandler(BulkheadFullException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ErrorResponse handleBulkheadFull(BulkheadFullException e) {
+        return createErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+    }
+
+    @ExceptionHandler(EventSpoolFullException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ErrorResponse handleEventSpoolFull(EventSpoolFullException e) {
+        return createErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+    }
+
+    @ExceptionHandler(GroupCommitTimeoutException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ErrorResponse handleGroupCommitTimeout(GroupCommitTimeoutException e) {
+        return createErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+    }
+
+    @ExceptionHandler(TimeoutException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ErrorResponse handleTimeout(TimeoutException e) {
+        return createErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, "Request was not processed in time.");
+    }
+
     private ErrorResponse createErrorResponse(HttpStatus status, String message) {
         return new ErrorResponse(status.value(), status.name(), message);
     }
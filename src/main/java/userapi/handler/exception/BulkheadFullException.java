@@ -0,0 +1,7 @@
+package userapi.handler.exception;
+
+public class BulkheadFullException extends RuntimeException {
+    public BulkheadFullException(String bulkhead) {
+        super("Too many concurrent " + bulkhead + " requests, try again later.");
+    }
+}
@@ -0,0 +1,7 @@
+package userapi.handler.exception;
+
+public class EventSpoolFullException extends RuntimeException {
+    public EventSpoolFullException(Throwable cause) {
+        super("Event spool is full and Kafka is unavailable, try again later.", cause);
+    }
+}
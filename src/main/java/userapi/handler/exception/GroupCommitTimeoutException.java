@@ -0,0 +1,7 @@
+package userapi.handler.exception;
+
+public class GroupCommitTimeoutException extends RuntimeException {
+    public GroupCommitTimeoutException(long timeoutMillis) {
+        super("User was not committed within " + timeoutMillis + " ms, try again later.");
+    }
+}
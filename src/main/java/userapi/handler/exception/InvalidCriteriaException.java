@@ -0,0 +1,7 @@
+package userapi.handler.exception;
+
+public class InvalidCriteriaException extends RuntimeException {
+    public InvalidCriteriaException(String message) {
+        super(message);
+    }
+}
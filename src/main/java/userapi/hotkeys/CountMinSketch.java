@@ -0,0 +1,64 @@
+package userapi.hotkeys;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Count-Min sketch over {@code long} keys with atomic counters, so concurrent writers need no lock.
+ * Estimates never undercount; the overcount is bounded by {@code total * e / width} with probability
+ * {@code 1 - e^-depth}.
+ */
+class CountMinSketch {
+    private final int depth;
+    private final int width;
+    private final int shift;
+    private final AtomicLongArray counters;
+
+    /**
+     * Each row indexes with its own slice of one 64-bit hash, so {@code depth * log2(width)} must not exceed 64.
+     */
+    CountMinSketch(int depth, int width) {
+        if (Integer.bitCount(width) != 1) throw new IllegalArgumentException("Width must be a power of two");
+        if (depth < 1 || depth * Integer.numberOfTrailingZeros(width) > 64) {
+            throw new IllegalArgumentException("Depth " + depth + " and width " + width + " need more than 64 hash bits");
+        }
+        this.depth = depth;
+        this.width = width;
+        this.shift = 64 / depth;
+        this.counters = new AtomicLongArray(depth * width);
+    }
+
+    /**
+     * Counts one occurrence of {@code key} and returns its new estimate.
+     */
+    long add(long key) {
+        long hash = mix(key);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.incrementAndGet(index(hash, row)));
+        }
+        return estimate;
+    }
+
+    long estimate(long key) {
+        long hash = mix(key);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.get(index(hash, row)));
+        }
+        return estimate;
+    }
+
+    void clear() {
+        for (int i = 0; i < counters.length(); i++) counters.set(i, 0);
+    }
+
+    private int index(long hash, int row) {
+        return row * width + ((int) (hash >>> (row * shift)) & (width - 1));
+    }
+
+    private static long mix(long key) {
+        key = (key ^ (key >>> 33)) * 0xff51afd7ed558ccdL;
+        key = (key ^ (key >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return key ^ (key >>> 33);
+    }
+}
@@ -0,0 +1,106 @@
+package userapi.hotkeys;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Heavy hitters of one key stream over a sliding window: a ring of fixed-length sub-windows, each with its own
+ * {@link CountMinSketch} and {@link TopKCandidates}. Memory is constant; a query merges the candidates of the
+ * requested number of most recent sub-windows and ranks them by their summed estimates.
+ * <p>
+ * A sub-window is reused once it falls out of the ring. The first writer to see the new period clears it while
+ * the others wait; a writer still in the previous period when the clear starts drops its access.
+ */
+class HeavyHitters {
+    private static final long RESETTING = Long.MAX_VALUE;
+
+    private final Window[] windows;
+    private final long windowMillis;
+    private final LongSupplier clock;
+
+    record HotKey(long key, long count) {
+    }
+
+    record Top(long accesses, List<HotKey> keys) {
+    }
+
+    private static final class Window {
+        private final AtomicLong period = new AtomicLong(Long.MIN_VALUE);
+        private final CountMinSketch sketch;
+        private final TopKCandidates candidates;
+        private final LongAdder accesses = new LongAdder();
+
+        private Window(int depth, int width, int k) {
+            this.sketch = new CountMinSketch(depth, width);
+            this.candidates = new TopKCandidates(k);
+        }
+    }
+
+    HeavyHitters(int windows, long windowMillis, int depth, int width, int k, LongSupplier clock) {
+        this.windows = new Window[windows];
+        for (int i = 0; i < windows; i++) this.windows[i] = new Window(depth, width, k);
+        this.windowMillis = windowMillis;
+        this.clock = clock;
+    }
+
+    void record(long key) {
+        long period = clock.getAsLong() / windowMillis;
+        Window window = windows[(int) (period % windows.length)];
+        long current;
+        while ((current = window.period.get()) != period) {
+            if (current == RESETTING) {
+                Thread.yield();
+            } else if (current > period) {
+                return;
+            } else if (window.period.compareAndSet(current, RESETTING)) {
+                window.sketch.clear();
+                window.candidates.clear();
+                window.accesses.reset();
+                window.period.set(period);
+            }
+        }
+        window.candidates.offer(key, window.sketch.add(key));
+        window.accesses.increment();
+    }
+
+    /**
+     * @param lastWindows how many sub-windows to merge, counting the current one
+     */
+    Top top(int lastWindows, int k) {
+        long now = clock.getAsLong() / windowMillis;
+        List<Window> selected = new ArrayList<>();
+        for (Window window : windows) {
+            long period = window.period.get();
+            if (period > now - Math.min(lastWindows, windows.length) && period <= now) selected.add(window);
+        }
+
+        long accesses = 0;
+        Map<Long, Long> counts = new HashMap<>();
+        for (Window window : selected) {
+            accesses += window.accesses.sum();
+            window.candidates.forEach(key -> counts.putIfAbsent(key, 0L));
+        }
+        counts.replaceAll((key, ignored) -> selected.stream().mapToLong(window -> window.sketch.estimate(key)).sum());
+
+        List<HotKey> ranked = counts.entrySet().stream()
+                .map(entry -> new HotKey(entry.getKey(), entry.getValue()))
+                .sorted(Comparator.comparingLong(HotKey::count).reversed())
+                .limit(k)
+                .toList();
+        return new Top(accesses, ranked);
+    }
+
+    long windowMillis() {
+        return windowMillis;
+    }
+
+    int windowCount() {
+        return windows.length;
+    }
+}
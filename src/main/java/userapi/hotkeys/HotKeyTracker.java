@@ -0,0 +1,72 @@
+package userapi.hotkeys;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import userapi.dto.HotKeysDto;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Most accessed user ids per operation, for cache pinning and abuse decisions. Every {@code UserController}
+ * access costs a few atomic increments in a constant-size {@link HeavyHitters} structure and takes no lock.
+ */
+@Component
+public class HotKeyTracker {
+    public enum Access { GET, UPDATE, DELETE }
+
+    private final Map<Access, HeavyHitters> trackers = new EnumMap<>(Access.class);
+    private final int topK;
+    private volatile boolean enabled;
+
+    @Autowired
+    public HotKeyTracker(@Value("${hot-keys.enabled:true}") boolean enabled,
+                         @Value("${hot-keys.top-k:16}") int topK,
+                         @Value("${hot-keys.window-seconds:10}") int windowSeconds,
+                         @Value("${hot-keys.windows:30}") int windows,
+                         @Value("${hot-keys.sketch-depth:4}") int depth,
+                         @Value("${hot-keys.sketch-width:1024}") int width) {
+        this(enabled, topK, windowSeconds * 1000L, windows, depth, width, System::currentTimeMillis);
+    }
+
+    HotKeyTracker(boolean enabled, int topK, long windowMillis, int windows, int depth, int width, LongSupplier clock) {
+        this.enabled = enabled;
+        this.topK = topK;
+        for (Access access : Access.values()) {
+            trackers.put(access, new HeavyHitters(windows, windowMillis, depth, width, topK * 2, clock));
+        }
+    }
+
+    public void record(Access access, long id) {
+        if (enabled) trackers.get(access).record(id);
+    }
+
+    /**
+     * @param windowSeconds length of the sliding window, rounded up to whole sub-windows and capped at the ring size
+     */
+    public HotKeysDto top(Access access, int windowSeconds) {
+        HeavyHitters tracker = trackers.get(access);
+        int lastWindows = (int) Math.max(1, Math.min(tracker.windowCount(),
+                (windowSeconds * 1000L + tracker.windowMillis() - 1) / tracker.windowMillis()));
+        HeavyHitters.Top top = tracker.top(lastWindows, topK);
+        return HotKeysDto.builder()
+                .operation(access.name())
+                .windowSeconds(lastWindows * tracker.windowMillis() / 1000)
+                .accesses(top.accesses())
+                .keys(top.keys().stream()
+                        .map(key -> HotKeysDto.HotKey.builder()
+                                .id(key.key())
+                                .count(key.count())
+                                .share(top.accesses() == 0 ? 0 : (double) key.count() / top.accesses())
+                                .build())
+                        .toList())
+                .enabled(enabled)
+                .build();
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+}
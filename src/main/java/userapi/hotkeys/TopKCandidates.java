@@ -0,0 +1,72 @@
+package userapi.hotkeys;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongConsumer;
+
+/**
+ * Space-Saving style candidate set: {@code k} slots holding the keys with the highest sketch estimates seen so
+ * far, where a new key takes the slot with the lowest estimate once it has overtaken it. Slots are swapped with
+ * CAS; a lost race only costs accuracy, and a key that ends up in two slots is deduplicated by readers.
+ * <p>
+ * Most accesses stop at one volatile read: keys whose estimate is not above the current minimum are ignored.
+ */
+class TopKCandidates {
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private final AtomicLongArray keys;
+    private final AtomicLongArray counts;
+    private volatile long threshold;
+
+    TopKCandidates(int k) {
+        this.keys = new AtomicLongArray(k);
+        this.counts = new AtomicLongArray(k);
+        clear();
+    }
+
+    void offer(long key, long estimate) {
+        if (estimate <= threshold) return;
+        int minSlot = -1;
+        long minCount = Long.MAX_VALUE;
+        for (int slot = 0; slot < keys.length(); slot++) {
+            long current = keys.get(slot);
+            if (current == key) {
+                if (counts.get(slot) < estimate) counts.set(slot, estimate);
+                return;
+            }
+            long count = current == EMPTY ? -1 : counts.get(slot);
+            if (count < minCount) {
+                minCount = count;
+                minSlot = slot;
+            }
+        }
+        long evicted = keys.get(minSlot);
+        if (estimate > minCount && keys.compareAndSet(minSlot, evicted, key)) {
+            counts.set(minSlot, estimate);
+            updateThreshold();
+        }
+    }
+
+    void forEach(LongConsumer consumer) {
+        for (int slot = 0; slot < keys.length(); slot++) {
+            long key = keys.get(slot);
+            if (key != EMPTY) consumer.accept(key);
+        }
+    }
+
+    void clear() {
+        for (int slot = 0; slot < keys.length(); slot++) {
+            keys.set(slot, EMPTY);
+            counts.set(slot, 0);
+        }
+        threshold = 0;
+    }
+
+    private void updateThreshold() {
+        long min = Long.MAX_VALUE;
+        for (int slot = 0; slot < keys.length(); slot++) {
+            if (keys.get(slot) == EMPTY) return;
+            min = Math.min(min, counts.get(slot));
+        }
+        threshold = min;
+    }
+}
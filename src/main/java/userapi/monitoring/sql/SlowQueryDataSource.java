@@ -0,0 +1,202 @@
+package userapi.monitoring.sql;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Wraps connections of the target {@link DataSource} so that every statement execution is timed
+ * and reported to the {@link SlowQueryDetector}.
+ */
+public class SlowQueryDataSource extends DelegatingDataSource {
+    private final SlowQueryDetector detector;
+
+    public SlowQueryDataSource(DataSource targetDataSource, SlowQueryDetector detector) {
+        super(targetDataSource);
+        this.detector = detector;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) {
+        return proxy(Connection.class, new ConnectionHandler(connection));
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(SlowQueryDataSource.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+
+        private ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = SlowQueryDataSource.invoke(target, method, args);
+            return switch (method.getName()) {
+                case "createStatement" -> proxy(Statement.class, new StatementHandler((Statement) result, null));
+                case "prepareStatement" -> proxy(PreparedStatement.class,
+                        new StatementHandler((Statement) result, (String) args[0]));
+                case "prepareCall" -> proxy(CallableStatement.class,
+                        new StatementHandler((Statement) result, (String) args[0]));
+                default -> result;
+            };
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final String preparedSql;
+        private Object[] parameters;
+        private int parameterCount;
+        private List<String> batchSql;
+        private CountingResultSetHandler pendingResult;
+
+        private StatementHandler(Statement target, String preparedSql) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                return execute(method, args);
+            }
+            if (name.equals("setNull") && args[0] instanceof Integer index) {
+                setParameter(index, null);
+            } else if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                setParameter(index, args[1]);
+            } else if (name.equals("addBatch") && args != null && args[0] instanceof String sql) {
+                if (batchSql == null) batchSql = new ArrayList<>();
+                batchSql.add(sql);
+            } else if (name.equals("clearBatch")) {
+                batchSql = null;
+            } else if (name.equals("clearParameters")) {
+                parameterCount = 0;
+            } else if (name.equals("close") && pendingResult != null) {
+                pendingResult.report();
+            }
+            return SlowQueryDataSource.invoke(target, method, args);
+        }
+
+        /**
+         * A plain {@link Statement} batch has no SQL of its own, so it is reported as its batched statements.
+         */
+        private Object execute(Method method, Object[] args) throws Throwable {
+            List<String> batch = null;
+            if (method.getName().equals("executeBatch") || method.getName().equals("executeLargeBatch")) {
+                batch = batchSql;
+                batchSql = null;
+            }
+            long start = System.nanoTime();
+            Object result = SlowQueryDataSource.invoke(target, method, args);
+            long elapsed = System.nanoTime() - start;
+            if (!detector.isSlow(elapsed)) {
+                return result;
+            }
+
+            String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : preparedSql;
+            if (sql == null && batch != null) sql = String.join("; ", batch);
+            String caller = detector.findCaller();
+            if (result instanceof ResultSet resultSet) {
+                pendingResult = new CountingResultSetHandler(resultSet, sql, start, boundParameters(), caller);
+                return proxy(ResultSet.class, pendingResult);
+            }
+            detector.recordSlow(sql, elapsed, boundParameters(), rows(result), caller);
+            return result;
+        }
+
+        private long rows(Object result) throws SQLException {
+            if (result instanceof Number number) return number.longValue();
+            if (result instanceof int[] counts) return Arrays.stream(counts).asLongStream().sum();
+            if (result instanceof long[] counts) return Arrays.stream(counts).sum();
+            return Math.max(target.getUpdateCount(), 0);
+        }
+
+        private void setParameter(int index, Object value) {
+            if (parameters == null) {
+                parameters = new Object[Math.max(index, 8)];
+            } else if (parameters.length < index) {
+                parameters = Arrays.copyOf(parameters, Math.max(index, parameters.length * 2));
+            }
+            parameters[index - 1] = value;
+            parameterCount = Math.max(parameterCount, index);
+        }
+
+        private Object[] boundParameters() {
+            return parameters == null ? null : Arrays.copyOf(parameters, parameterCount);
+        }
+    }
+
+    /**
+     * Counts rows of a slow query and reports it once the result set is closed.
+     */
+    private final class CountingResultSetHandler implements InvocationHandler {
+        private final ResultSet target;
+        private final String sql;
+        private final long start;
+        private final Object[] parameters;
+        private final String caller;
+        private long rows;
+        private boolean reported;
+
+        private CountingResultSetHandler(ResultSet target, String sql, long start, Object[] parameters, String caller) {
+            this.target = target;
+            this.sql = sql;
+            this.start = start;
+            this.parameters = parameters;
+            this.caller = caller;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = SlowQueryDataSource.invoke(target, method, args);
+            if (method.getName().equals("next") && Boolean.TRUE.equals(result)) {
+                rows++;
+            } else if (method.getName().equals("close")) {
+                report();
+            }
+            return result;
+        }
+
+        private void report() {
+            if (!reported) {
+                reported = true;
+                detector.recordSlow(sql, System.nanoTime() - start, parameters, rows, caller);
+            }
+        }
+    }
+}
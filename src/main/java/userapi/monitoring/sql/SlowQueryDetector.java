@@ -0,0 +1,167 @@
+package userapi.monitoring.sql;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import userapi.dto.SlowQueryDto;
+import userapi.repository.UserRepository;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Receives the timing of every JDBC statement and keeps only those above the threshold.
+ * The fast path is a single comparison; caller lookup, parameter formatting and normalization
+ * happen only for slow statements.
+ * <p>
+ * Bound values and literals are user data such as emails, so unless {@code slow-query.capture-parameters} is set
+ * only the normalized SQL and the parameter types are logged and kept.
+ */
+@Component
+public class SlowQueryDetector {
+    private static final Logger logger = LoggerFactory.getLogger(SlowQueryDetector.class);
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+
+    private final long thresholdNanos;
+    private final int topN;
+    private final boolean captureParameters;
+    // only slow statements get here and it holds topN entries, so one lock keeps the bound exact
+    private final Map<String, Entry> slowest = new HashMap<>();
+
+    public SlowQueryDetector(@Value("${slow-query.threshold-ms:200}") long thresholdMillis,
+                             @Value("${slow-query.top-n:20}") int topN,
+                             @Value("${slow-query.capture-parameters:false}") boolean captureParameters) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.topN = topN;
+        this.captureParameters = captureParameters;
+    }
+
+    public boolean isSlow(long elapsedNanos) {
+        return elapsedNanos >= thresholdNanos;
+    }
+
+    /**
+     * Called by the statement proxy once a slow statement has finished, including result set consumption
+     * when the statement was a query.
+     */
+    void recordSlow(String sql, long elapsedNanos, Object[] parameters, long rows, String caller) {
+        if (sql == null) sql = "<unknown>";
+        List<String> params = parameters == null ? List.of() : Arrays.stream(parameters)
+                .map(captureParameters ? String::valueOf : SlowQueryDetector::redact)
+                .toList();
+        String normalized = normalize(sql);
+        logger.warn("Slow query {} ms, rows={}, caller={}, sql={}, params={}",
+                String.format("%.2f", elapsedNanos / 1e6), rows, caller, captureParameters ? sql : normalized, params);
+
+        synchronized (slowest) {
+            slowest.computeIfAbsent(normalized, Entry::new).add(elapsedNanos, params, rows, caller);
+            if (slowest.size() > topN) evictFastest();
+        }
+    }
+
+    /**
+     * Finds the {@link UserRepository} method on the current stack, falling back to the first application frame.
+     */
+    String findCaller() {
+        return STACK_WALKER.walk(frames -> {
+            String fallback = null;
+            for (StackWalker.StackFrame frame : (Iterable<StackWalker.StackFrame>) frames::iterator) {
+                Class<?> type = frame.getDeclaringClass();
+                if (UserRepository.class.isAssignableFrom(type) && type != UserRepository.class) {
+                    return "UserRepository." + frame.getMethodName();
+                }
+                if (fallback == null && type.getName().startsWith("userapi.")
+                        && !type.getPackageName().equals(SlowQueryDetector.class.getPackageName())) {
+                    fallback = type.getSimpleName() + "." + frame.getMethodName();
+                }
+            }
+            return fallback == null ? "unknown" : fallback;
+        });
+    }
+
+    public List<SlowQueryDto> getSlowest() {
+        synchronized (slowest) {
+            return slowest.values().stream()
+                    .sorted(Comparator.comparingLong(Entry::maxNanos).reversed())
+                    .map(Entry::toDto)
+                    .toList();
+        }
+    }
+
+    public void reset() {
+        synchronized (slowest) {
+            slowest.clear();
+        }
+    }
+
+    static String normalize(String sql) {
+        String normalized = STRING_LITERAL.matcher(sql).replaceAll("?");
+        normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = IN_LIST.matcher(normalized).replaceAll("(?)");
+        return WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+    }
+
+    private static String redact(Object parameter) {
+        return parameter == null ? "null" : "<" + parameter.getClass().getSimpleName() + ">";
+    }
+
+    private void evictFastest() {
+        slowest.values().stream()
+                .min(Comparator.comparingLong(Entry::maxNanos))
+                .ifPresent(entry -> slowest.remove(entry.sql));
+    }
+
+    /**
+     * Guarded by the {@code slowest} map.
+     */
+    private static final class Entry {
+        private final String sql;
+        private long count;
+        private long totalNanos;
+        private long maxNanos;
+        private List<String> parameters;
+        private long rows;
+        private String caller;
+
+        private Entry(String sql) {
+            this.sql = sql;
+        }
+
+        private void add(long elapsedNanos, List<String> parameters, long rows, String caller) {
+            count++;
+            totalNanos += elapsedNanos;
+            if (elapsedNanos >= maxNanos) {
+                maxNanos = elapsedNanos;
+                this.parameters = parameters;
+                this.rows = rows;
+                this.caller = caller;
+            }
+        }
+
+        private long maxNanos() {
+            return maxNanos;
+        }
+
+        private SlowQueryDto toDto() {
+            return SlowQueryDto.builder()
+                    .sql(sql)
+                    .count(count)
+                    .maxMillis(maxNanos / 1e6)
+                    .avgMillis(count == 0 ? 0 : totalNanos / 1e6 / count)
+                    .caller(caller)
+                    .parameters(parameters)
+                    .rows(rows)
+                    .build();
+        }
+    }
+}
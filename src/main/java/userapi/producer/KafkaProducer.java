@@ -1,18 +1,272 @@
 package userapi.producer;
 
-import lombok.RequiredArgsConstructor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.KafkaException;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
+import userapi.dto.EventSpoolStatsDto;
+import userapi.dto.UserDto;
 import userapi.dto.UserEvent;
+import userapi.handler.exception.EventSpoolFullException;
+import userapi.producer.spool.EventSpool;
+import userapi.timing.Phase;
+import userapi.timing.ServerTiming;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends user events to Kafka directly while the producer is healthy and nothing is spooled.
+ * Otherwise events are appended to the {@link EventSpool} and replayed in order by a single drainer thread,
+ * so request threads never wait for an unreachable broker.
+ * <p>
+ * A direct send that fails is only known from its callback, after later events may already have been spooled.
+ * Such events are kept in memory by send order, and the drainer waits until no direct send is unresolved and
+ * replays them before the spool, so the events of one user are never reordered.
+ */
 @Component
-@RequiredArgsConstructor
 public class KafkaProducer {
+    private static final Logger logger = LoggerFactory.getLogger(KafkaProducer.class);
+    static final String TOPIC = "user-events";
 
     private final KafkaTemplate<String, UserEvent> kafkaTemplate;
+    private final EventSpool eventSpool;
+    private final ObjectMapper objectMapper;
+    private final long drainIntervalMillis;
+    private final long sendTimeoutMillis;
+    private final long maxBackoffMillis;
+    private final LongAdder spooled = new LongAdder();
+    private final LongAdder drained = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final AtomicInteger unresolvedSends = new AtomicInteger();
+    private final AtomicLong sendSequence = new AtomicLong();
+    private final ConcurrentSkipListMap<Long, UserEvent> failedSends = new ConcurrentSkipListMap<>();
+    private volatile boolean healthy = true;
+    private ScheduledExecutorService drainer;
+    private long backoffMillis;
+    private long nextAttemptNanos;
+
+    public KafkaProducer(KafkaTemplate<String, UserEvent> kafkaTemplate,
+                         EventSpool eventSpool,
+                         ObjectMapper objectMapper,
+                         @Value("${event-spool.drain-interval-ms:200}") long drainIntervalMillis,
+                         @Value("${event-spool.send-timeout-ms:10000}") long sendTimeoutMillis,
+                         @Value("${event-spool.max-backoff-ms:30000}") long maxBackoffMillis) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.eventSpool = eventSpool;
+        this.objectMapper = objectMapper;
+        this.drainIntervalMillis = drainIntervalMillis;
+        this.sendTimeoutMillis = sendTimeoutMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+    }
+
+    /**
+     * Publishes {@code user} as a snapshot keyed by its id, so all events of one user stay in order on one partition.
+     */
+    public void sendUser(String eventType, UserDto user) {
+        send(UserEvent.of(eventType, user));
+    }
+
+    /**
+     * Publishes one event per user without waiting between sends, so the producer can pack them into few requests.
+     */
+    public void sendUsers(String eventType, List<UserDto> users) {
+        for (UserDto user : users) send(UserEvent.of(eventType, user));
+    }
+
+    /**
+     * Sends one event per user and waits once, up to {@code event-spool.send-timeout-ms}, until Kafka has acknowledged
+     * all of them. Throws if any send failed, timed out or had to be spooled; those events are still replayed later.
+     */
+    public void sendUsersAndWait(String eventType, List<UserDto> users) throws InterruptedException {
+        long start = ServerTiming.start();
+        try {
+            List<CompletableFuture<?>> sends = new ArrayList<>(users.size());
+            int spooledEvents = 0;
+            for (UserDto user : users) {
+                CompletableFuture<?> sent = sendOrSpool(UserEvent.of(eventType, user));
+                if (sent == null) spooledEvents++;
+                else sends.add(sent);
+            }
+            try {
+                CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new))
+                        .get(sendTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (ExecutionException | TimeoutException e) {
+                throw new KafkaException("Sending " + users.size() + " " + eventType + " events failed", e);
+            }
+            if (spooledEvents > 0) {
+                throw new KafkaException("Kafka is unavailable, " + spooledEvents + " " + eventType + " events were spooled");
+            }
+        } finally {
+            ServerTiming.stop(Phase.KAFKA, start);
+        }
+    }
+
+    void send(UserEvent event) {
+        long start = ServerTiming.start();
+        try {
+            sendOrSpool(event);
+        } finally {
+            ServerTiming.stop(Phase.KAFKA, start);
+        }
+    }
+
+    /**
+     * @return the direct send, completing once its failure has been recorded for replay, or {@code null} if spooled
+     */
+    private CompletableFuture<?> sendOrSpool(UserEvent event) {
+        // counted before the checks, so the drainer never starts while this send may still fail
+        unresolvedSends.incrementAndGet();
+        if (healthy && eventSpool.isEmpty() && failedSends.isEmpty()) {
+            long sequence = sendSequence.incrementAndGet();
+            try {
+                return kafkaTemplate.send(TOPIC, key(event), event).whenComplete((result, e) -> {
+                    if (e != null) {
+                        failedSends.put(sequence, event);
+                        markUnhealthy(e);
+                    }
+                    unresolvedSends.decrementAndGet();
+                });
+            } catch (RuntimeException e) {
+                markUnhealthy(e);
+            }
+        }
+        unresolvedSends.decrementAndGet();
+        spool(event);
+        return null;
+    }
+
+    public EventSpoolStatsDto getStats() {
+        return EventSpoolStatsDto.builder()
+                .healthy(healthy)
+                .depth(eventSpool.depth() + failedSends.size())
+                .segments(eventSpool.segmentCount())
+                .diskBytes(eventSpool.diskBytes())
+                .spooled(spooled.sum())
+                .drained(drained.sum())
+                .rejected(rejected.sum())
+                .build();
+    }
+
+    @PostConstruct
+    void startDrainer() {
+        drainer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "event-spool-drainer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        drainer.scheduleWithFixedDelay(this::drain, drainIntervalMillis, drainIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stopDrainer() throws InterruptedException {
+        drainer.shutdown();
+        drainer.awaitTermination(sendTimeoutMillis, TimeUnit.MILLISECONDS);
+        if (!failedSends.isEmpty()) {
+            logger.warn("Spooling {} failed sends on shutdown, they will replay after events spooled before them",
+                    failedSends.size());
+            failedSends.values().forEach(event -> eventSpool.append(key(event), serialize(event)));
+            failedSends.clear();
+        }
+        eventSpool.checkpoint();
+    }
+
+    /**
+     * Replays failed direct sends and then spooled events in order until both are empty or a send fails,
+     * then checkpoints.
+     */
+    void drain() {
+        if (System.nanoTime() < nextAttemptNanos || unresolvedSends.get() > 0) return;
+        int sent = 0;
+        try {
+            Map.Entry<Long, UserEvent> failed;
+            while ((failed = failedSends.firstEntry()) != null) {
+                UserEvent event = failed.getValue();
+                kafkaTemplate.send(TOPIC, key(event), event).get(sendTimeoutMillis, TimeUnit.MILLISECONDS);
+                failedSends.remove(failed.getKey());
+                drained.increment();
+            }
+            EventSpool.SpoolRecord record;
+            while ((record = eventSpool.peek()) != null) {
+                UserEvent event;
+                try {
+                    event = objectMapper.readValue(record.value(), UserEvent.class);
+                } catch (IOException e) {
+                    logger.error("Dropping unreadable spooled event", e);
+                    eventSpool.advance();
+                    continue;
+                }
+                kafkaTemplate.send(TOPIC, record.key(), event).get(sendTimeoutMillis, TimeUnit.MILLISECONDS);
+                eventSpool.advance();
+                drained.increment();
+                if (++sent % 100 == 0) eventSpool.checkpoint();
+            }
+            if (!healthy) logger.info("Kafka is reachable again, spooled events drained");
+            healthy = true;
+            backoffMillis = 0;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            markUnhealthy(e);
+            backoffMillis = Math.min(maxBackoffMillis, Math.max(drainIntervalMillis, backoffMillis * 2));
+            nextAttemptNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(backoffMillis);
+        } finally {
+            if (sent > 0) eventSpool.checkpoint();
+        }
+    }
+
+    /**
+     * Falls back to a blocking send when the spool is full, and fails the caller if that send fails too.
+     */
+    private void spool(UserEvent event) {
+        if (eventSpool.append(key(event), serialize(event))) {
+            spooled.increment();
+            return;
+        }
+        rejected.increment();
+        logger.error("Event spool is full, blocking on the send of {}", event.getEvent());
+        try {
+            kafkaTemplate.send(TOPIC, key(event), event).get(sendTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new EventSpoolFullException(e);
+        } catch (ExecutionException | TimeoutException | RuntimeException e) {
+            throw new EventSpoolFullException(e);
+        }
+    }
+
+    private byte[] serialize(UserEvent event) {
+        try {
+            return objectMapper.writeValueAsBytes(event);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String key(UserEvent event) {
+        return event.getId() == null ? null : event.getId().toString();
+    }
 
-    public void sendUser(String eventType, String email) {
-        UserEvent event = new UserEvent(eventType, email);
-        kafkaTemplate.send("user-events", event);
+    private void markUnhealthy(Throwable e) {
+        if (healthy) logger.warn("Kafka producer is unhealthy, spooling events: {}", e.getMessage());
+        healthy = false;
     }
 }
@@ -0,0 +1,318 @@
+package userapi.producer.spool;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log of pending events stored in fixed-size memory-mapped segment files.
+ * <p>
+ * Record layout: {@code [int bodyLength][int crc32c(body)][short keyLength or -1][key][value]}.
+ * A zero length marks the end of written data; recovery stops at the first zero length or checksum mismatch,
+ * so a torn tail left by a crash is discarded. Consumption progress is kept in a checkpoint file, which gives
+ * at-least-once replay of records consumed after the last {@link #checkpoint()}.
+ * <p>
+ * Any number of threads may {@link #append}; a single consumer uses {@link #peek()} and {@link #advance()}.
+ */
+public class EventSpool implements Closeable {
+    private static final int HEADER = 8;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final boolean fsync;
+    private final Deque<Segment> segments = new ArrayDeque<>();
+    private final AtomicLong depth = new AtomicLong();
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+
+    private volatile Segment writeSegment;
+    private Segment readSegment;
+    private int readPosition;
+    private SpoolRecord peeked;
+    /**
+     * Runs in {@link #peek()} between reading {@code committed} and {@code sealed}; tests use it to roll in that window.
+     */
+    Runnable beforeSealedCheck = () -> {
+    };
+
+    public record SpoolRecord(String key, byte[] value, int size) {
+    }
+
+    private static final class Segment {
+        private final long id;
+        private final Path path;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private volatile int committed;
+        private volatile boolean sealed;
+
+        private Segment(long id, Path path, FileChannel channel, MappedByteBuffer buffer) {
+            this.id = id;
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+    }
+
+    public EventSpool(Path directory, int segmentSize, long maxBytes, boolean fsync) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSegments = (int) Math.max(2, maxBytes / segmentSize);
+        this.fsync = fsync;
+        try {
+            Files.createDirectories(directory);
+            lockChannel = FileChannel.open(directory.resolve(".lock"), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            lock = lockChannel.tryLock();
+            if (lock == null) throw new IllegalStateException("Event spool " + directory + " is used by another process");
+            recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return {@code false} when the spool has reached its disk limit or the record does not fit into a segment
+     */
+    public synchronized boolean append(String key, byte[] value) {
+        byte[] keyBytes = key == null ? null : key.getBytes(StandardCharsets.UTF_8);
+        int bodyLength = 2 + (keyBytes == null ? 0 : keyBytes.length) + value.length;
+        int recordLength = HEADER + bodyLength;
+        if (recordLength > segmentSize) return false;
+
+        Segment segment = writeSegment;
+        if (segment.committed + recordLength > segmentSize) {
+            if (segments.size() >= maxSegments) return false;
+            segment = roll();
+        }
+
+        ByteBuffer body = ByteBuffer.allocate(bodyLength);
+        body.putShort((short) (keyBytes == null ? -1 : keyBytes.length));
+        if (keyBytes != null) body.put(keyBytes);
+        body.put(value);
+        CRC32C crc = new CRC32C();
+        crc.update(body.array());
+
+        int position = segment.committed;
+        segment.buffer.putInt(position + 4, (int) crc.getValue());
+        segment.buffer.put(position + HEADER, body.array());
+        segment.buffer.putInt(position, bodyLength);
+        if (fsync) segment.buffer.force(position, recordLength);
+        depth.incrementAndGet();
+        segment.committed = position + recordLength;
+        return true;
+    }
+
+    /**
+     * @return the oldest unconsumed record, or {@code null} when the spool is empty
+     */
+    public SpoolRecord peek() {
+        if (peeked != null) return peeked;
+        while (true) {
+            if (readPosition < readSegment.committed) {
+                peeked = read(readSegment, readPosition);
+                return peeked;
+            }
+            beforeSealedCheck.run();
+            if (!readSegment.sealed) return null;
+            // a writer may have appended more records and rolled since committed was read; once sealed it is final
+            if (readPosition < readSegment.committed) continue;
+            Segment finished = readSegment;
+            synchronized (this) {
+                segments.removeFirst();
+                readSegment = segments.peekFirst();
+            }
+            readPosition = 0;
+            delete(finished);
+        }
+    }
+
+    /**
+     * Marks the record returned by the last {@link #peek()} as consumed.
+     */
+    public void advance() {
+        if (peeked == null) throw new IllegalStateException("Nothing to advance past");
+        readPosition += peeked.size();
+        peeked = null;
+        depth.decrementAndGet();
+    }
+
+    /**
+     * Persists the consumer position so recovery does not replay records consumed so far.
+     */
+    public void checkpoint() {
+        ByteBuffer data = ByteBuffer.allocate(12).putLong(readSegment.id).putInt(readPosition);
+        Path temporary = directory.resolve("checkpoint.tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            channel.write(data.flip());
+            channel.force(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        try {
+            Files.move(temporary, directory.resolve("checkpoint"), StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public boolean isEmpty() {
+        return depth.get() == 0;
+    }
+
+    public long depth() {
+        return depth.get();
+    }
+
+    public synchronized int segmentCount() {
+        return segments.size();
+    }
+
+    public synchronized long diskBytes() {
+        return (long) segments.size() * segmentSize;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        for (Segment segment : segments) {
+            segment.buffer.force();
+            segment.channel.close();
+        }
+        lock.release();
+        lockChannel.close();
+    }
+
+    private void recover() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX)).sorted().toList();
+        }
+        long checkpointSegment = -1;
+        int checkpointPosition = 0;
+        Path checkpoint = directory.resolve("checkpoint");
+        if (Files.exists(checkpoint)) {
+            ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(checkpoint));
+            checkpointSegment = data.getLong();
+            checkpointPosition = data.getInt();
+        }
+
+        for (Path file : files) {
+            long id = segmentId(file);
+            if (id < checkpointSegment) {
+                Files.delete(file);
+                continue;
+            }
+            Segment segment = open(id, file);
+            segment.committed = scan(segment);
+            segments.addLast(segment);
+        }
+        if (segments.isEmpty()) segments.addLast(open(Math.max(checkpointSegment, 0), segmentPath(Math.max(checkpointSegment, 0))));
+
+        for (Segment segment : segments) segment.sealed = true;
+        writeSegment = segments.peekLast();
+        writeSegment.sealed = false;
+        writeSegment.buffer.put(writeSegment.committed, new byte[segmentSize - writeSegment.committed]);
+
+        readSegment = segments.peekFirst();
+        readPosition = readSegment.id == checkpointSegment ? Math.min(checkpointPosition, readSegment.committed) : 0;
+
+        long pending = 0;
+        for (Segment segment : segments) {
+            for (int position = segment == readSegment ? readPosition : 0; position < segment.committed; ) {
+                position += HEADER + segment.buffer.getInt(position);
+                pending++;
+            }
+        }
+        depth.set(pending);
+    }
+
+    private int scan(Segment segment) {
+        int position = 0;
+        CRC32C crc = new CRC32C();
+        while (position + HEADER <= segmentSize) {
+            int bodyLength = segment.buffer.getInt(position);
+            if (bodyLength <= 0 || position + HEADER + bodyLength > segmentSize) break;
+            byte[] body = new byte[bodyLength];
+            segment.buffer.get(position + HEADER, body);
+            crc.reset();
+            crc.update(body);
+            if ((int) crc.getValue() != segment.buffer.getInt(position + 4)) break;
+            position += HEADER + bodyLength;
+        }
+        return position;
+    }
+
+    private SpoolRecord read(Segment segment, int position) {
+        int bodyLength = segment.buffer.getInt(position);
+        byte[] body = new byte[bodyLength];
+        segment.buffer.get(position + HEADER, body);
+        ByteBuffer buffer = ByteBuffer.wrap(body);
+        short keyLength = buffer.getShort();
+        String key = null;
+        if (keyLength >= 0) {
+            key = new String(body, 2, keyLength, StandardCharsets.UTF_8);
+            buffer.position(2 + keyLength);
+        }
+        byte[] value = new byte[buffer.remaining()];
+        buffer.get(value);
+        return new SpoolRecord(key, value, HEADER + bodyLength);
+    }
+
+    private Segment roll() {
+        Segment current = writeSegment;
+        long id = current.id + 1;
+        Segment next = open(id, segmentPath(id));
+        segments.addLast(next);
+        writeSegment = next;
+        current.sealed = true;
+        return next;
+    }
+
+    private Segment open(long id, Path path) {
+        try {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            return new Segment(id, path, channel, buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void delete(Segment segment) {
+        try {
+            segment.channel.close();
+            Files.deleteIfExists(segment.path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Path segmentPath(long id) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX));
+    }
+
+    private static long segmentId(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
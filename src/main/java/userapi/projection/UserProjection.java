@@ -0,0 +1,330 @@
+package userapi.projection;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.WakeupException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import userapi.dto.ProjectionStatsDto;
+import userapi.dto.UserDto;
+import userapi.dto.UserEvent;
+import userapi.event.UserChangedEvent;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Read model of all users rebuilt from the {@code user-events} topic, so {@code GET /api/users/{id}} can be
+ * answered without the database. On startup every partition is replayed from {@code projection.start-offset};
+ * until the replay reaches the end offsets seen at startup, and whenever the consumer lag or the time since the
+ * last successful poll exceed their bounds, {@link #find} returns empty and callers fall back to the database.
+ * <p>
+ * A single consumer thread applies events; readers take the read lock of a {@link StampedLock}.
+ * <p>
+ * With {@code soft-delete.enabled=true} the {@code USER_DELETED} event is only sent when the row is purged, so a
+ * delete committed on this instance hides the user right away and keeps it hidden until that event is applied.
+ * Other instances keep serving the user until the purge.
+ */
+@Component
+@ConditionalOnProperty(name = "projection.enabled", havingValue = "true")
+public class UserProjection {
+    private static final Logger logger = LoggerFactory.getLogger(UserProjection.class);
+
+    private final ConsumerFactory<String, UserEvent> consumerFactory;
+    private final String topic;
+    private final String startOffset;
+    private final long maxLag;
+    private final long maxStalenessMillis;
+    private final Duration pollTimeout;
+    private final boolean softDelete;
+    private final LongObjectHashMap<ProjectedUser> users = new LongObjectHashMap<>(1024);
+    private final LongObjectHashMap<Boolean> softDeleted = new LongObjectHashMap<>(16);
+    private final StampedLock lock = new StampedLock();
+    private final LongAdder applied = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+
+    private Consumer<String, UserEvent> consumer;
+    private List<TopicPartition> partitions;
+    private Map<TopicPartition, Long> catchUpOffsets;
+    private Map<TopicPartition, Long> endOffsets;
+    private long endOffsetsRefreshedMillis;
+    private Thread consumerThread;
+    private volatile boolean running;
+    private volatile boolean caughtUp;
+    private volatile long lag = -1;
+    private volatile long lastPollMillis;
+
+    /**
+     * Compact snapshot; timestamps are epoch microseconds in UTC.
+     */
+    record ProjectedUser(String name, String email, int age, long createdAt, long updatedAt) {
+    }
+
+    public UserProjection(ConsumerFactory<String, UserEvent> consumerFactory,
+                          @Value("${projection.topic:user-events}") String topic,
+                          @Value("${projection.start-offset:earliest}") String startOffset,
+                          @Value("${projection.max-lag:1000}") long maxLag,
+                          @Value("${projection.max-staleness-ms:5000}") long maxStalenessMillis,
+                          @Value("${projection.poll-timeout-ms:500}") long pollTimeoutMillis,
+                          @Value("${soft-delete.enabled:false}") boolean softDelete) {
+        this.consumerFactory = consumerFactory;
+        this.topic = topic;
+        this.startOffset = startOffset;
+        this.maxLag = maxLag;
+        this.maxStalenessMillis = maxStalenessMillis;
+        this.pollTimeout = Duration.ofMillis(pollTimeoutMillis);
+        this.softDelete = softDelete;
+    }
+
+    /**
+     * @return the projected user, or empty if the projection is stale or does not know the id yet
+     */
+    public Optional<UserDto> find(long id) {
+        if (!isFresh()) {
+            fallbacks.increment();
+            return Optional.empty();
+        }
+        ProjectedUser user;
+        long stamp = lock.readLock();
+        try {
+            user = users.get(id);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        if (user == null) {
+            fallbacks.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(UserDto.builder()
+                .id(id)
+                .name(user.name())
+                .email(user.email())
+                .age(user.age())
+                .createdAt(fromMicros(user.createdAt()))
+                .updatedAt(fromMicros(user.updatedAt()))
+                .build());
+    }
+
+    /**
+     * Survives {@link #initialize}: the replay brings back soft-deleted users whose rows have not been purged yet.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (!softDelete || event.type() != UserChangedEvent.Type.DELETED) return;
+        long stamp = lock.writeLock();
+        try {
+            users.remove(event.user().getId());
+            softDeleted.put(event.user().getId(), Boolean.TRUE);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public boolean isFresh() {
+        return caughtUp && lag <= maxLag && System.currentTimeMillis() - lastPollMillis <= maxStalenessMillis;
+    }
+
+    public ProjectionStatsDto getStats() {
+        int size;
+        long stamp = lock.readLock();
+        try {
+            size = users.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        return ProjectionStatsDto.builder()
+                .caughtUp(caughtUp)
+                .fresh(isFresh())
+                .users(size)
+                .lag(lag)
+                .lastPollAgeMs(lastPollMillis == 0 ? -1 : System.currentTimeMillis() - lastPollMillis)
+                .applied(applied.sum())
+                .skipped(skipped.sum())
+                .hits(hits.sum())
+                .fallbacks(fallbacks.sum())
+                .build();
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        consumerThread = new Thread(this::run, "user-projection");
+        consumerThread.setDaemon(true);
+        consumerThread.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        Consumer<String, UserEvent> current = consumer;
+        if (current != null) current.wakeup();
+        consumerThread.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                if (consumer == null) initialize();
+                pollOnce();
+            } catch (WakeupException e) {
+                // stop() was called
+            } catch (Exception e) {
+                logger.warn("User projection consumer failed, rebuilding: {}", e.getMessage());
+                closeConsumer();
+                sleepQuietly();
+            }
+        }
+        closeConsumer();
+    }
+
+    /**
+     * Creates the consumer, assigns every partition of the topic and seeks to the configured start offset.
+     * The projection is rebuilt from scratch, so no consumer group offsets are committed or used.
+     */
+    void initialize() {
+        caughtUp = false;
+        long stamp = lock.writeLock();
+        try {
+            users.clear();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+
+        consumer = consumerFactory.createConsumer();
+        List<PartitionInfo> infos = consumer.partitionsFor(topic);
+        if (infos == null || infos.isEmpty()) throw new IllegalStateException("Topic " + topic + " has no partitions");
+        partitions = infos.stream().map(info -> new TopicPartition(info.topic(), info.partition())).toList();
+        consumer.assign(partitions);
+        switch (startOffset) {
+            case "earliest" -> consumer.seekToBeginning(partitions);
+            case "latest" -> consumer.seekToEnd(partitions);
+            default -> {
+                long offset = Long.parseLong(startOffset);
+                Map<TopicPartition, Long> beginning = consumer.beginningOffsets(partitions);
+                partitions.forEach(partition -> consumer.seek(partition, Math.max(offset, beginning.get(partition))));
+            }
+        }
+        catchUpOffsets = consumer.endOffsets(partitions);
+        endOffsets = catchUpOffsets;
+        endOffsetsRefreshedMillis = System.currentTimeMillis();
+        logger.info("Rebuilding user projection from {} offset {} up to {}", topic, startOffset, catchUpOffsets);
+    }
+
+    void pollOnce() {
+        ConsumerRecords<String, UserEvent> records = consumer.poll(pollTimeout);
+        if (!records.isEmpty()) {
+            long stamp = lock.writeLock();
+            try {
+                for (ConsumerRecord<String, UserEvent> record : records) apply(record.value());
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+        lag = computeLag();
+        lastPollMillis = System.currentTimeMillis();
+        if (!caughtUp && partitions.stream().allMatch(partition -> consumer.position(partition) >= catchUpOffsets.get(partition))) {
+            caughtUp = true;
+            logger.info("User projection caught up with {} users", users.size());
+        }
+    }
+
+    private void apply(UserEvent event) {
+        if (event == null || event.getId() == null || event.getEvent() == null) {
+            skipped.increment();
+            return;
+        }
+        switch (event.getEvent()) {
+            case "USER_CREATED", "USER_UPDATED" -> {
+                if (softDeleted.get(event.getId()) == null) {
+                    users.put(event.getId(), new ProjectedUser(event.getName(), event.getEmail(),
+                            event.getAge() == null ? 0 : event.getAge(),
+                            toMicros(event.getCreatedAt()), toMicros(event.getUpdatedAt())));
+                }
+            }
+            case "USER_DELETED" -> {
+                users.remove(event.getId());
+                softDeleted.remove(event.getId());
+            }
+            default -> {
+                skipped.increment();
+                return;
+            }
+        }
+        applied.increment();
+    }
+
+    /**
+     * Sums {@link Consumer#currentLag} over all partitions; for partitions whose lag the consumer does not know
+     * yet, the end offsets are re-read at most once per second.
+     */
+    private long computeLag() {
+        long total = 0;
+        boolean refreshed = false;
+        for (TopicPartition partition : partitions) {
+            OptionalLong current = consumer.currentLag(partition);
+            if (current.isPresent()) {
+                total += current.getAsLong();
+                continue;
+            }
+            if (!refreshed && System.currentTimeMillis() - endOffsetsRefreshedMillis >= 1000) {
+                endOffsets = consumer.endOffsets(partitions);
+                endOffsetsRefreshedMillis = System.currentTimeMillis();
+                refreshed = true;
+            }
+            total += Math.max(0, endOffsets.get(partition) - consumer.position(partition));
+        }
+        return total;
+    }
+
+    private void closeConsumer() {
+        if (consumer == null) return;
+        try {
+            consumer.close(Duration.ofSeconds(5));
+        } catch (Exception e) {
+            logger.debug("Failed to close projection consumer", e);
+        }
+        consumer = null;
+    }
+
+    private void sleepQuietly() {
+        try {
+            Thread.sleep(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    private static long toMicros(LocalDateTime time) {
+        if (time == null) return Long.MIN_VALUE;
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        if (micros == Long.MIN_VALUE) return null;
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1000, ZoneOffset.UTC);
+    }
+}
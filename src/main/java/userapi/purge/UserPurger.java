@@ -0,0 +1,197 @@
+package userapi.purge;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import userapi.dto.PurgeStatsDto;
+import userapi.dto.UserDto;
+import userapi.event.AfterCommit;
+import userapi.producer.KafkaProducer;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Soft delete for {@code users}. With {@code soft-delete.enabled=true} a delete only sets {@code deleted_at}, which
+ * hides the row from every JPA query, and a background thread removes marked rows in batches of
+ * {@code soft-delete.purge.batch-size}, at most {@code soft-delete.purge.max-rows-per-second}, sending their
+ * {@code USER_DELETED} events once per batch after it commits.
+ * <p>
+ * The unique email index still covers marked rows, so creating a user with the email of a marked one first purges
+ * that row through {@link #reclaim}. Both paths lock the rows they delete, so each row produces one event.
+ * <p>
+ * Not supported with sharding: {@code ShardedUserService} always deletes rows right away, so soft delete stays
+ * disabled when {@code sharding.enabled=true}.
+ */
+@Component
+public class UserPurger {
+    private static final Logger logger = LoggerFactory.getLogger(UserPurger.class);
+    private static final String COLUMNS = "id, name, email, age, created_at, updated_at";
+    private static final RowMapper<UserDto> ROW_MAPPER = (resultSet, rowNum) -> UserDto.builder()
+            .id(resultSet.getLong("id"))
+            .name(resultSet.getString("name"))
+            .email(resultSet.getString("email"))
+            .age(resultSet.getInt("age"))
+            .createdAt(resultSet.getTimestamp("created_at").toLocalDateTime())
+            .updatedAt(resultSet.getTimestamp("updated_at").toLocalDateTime())
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final KafkaProducer kafkaProducer;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxRowsPerSecond;
+    private final long idleIntervalMillis;
+    private final LongAdder marked = new LongAdder();
+    private final LongAdder purged = new LongAdder();
+    private final LongAdder reclaimed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private Thread purgeThread;
+    private volatile boolean running;
+
+    public UserPurger(JdbcTemplate jdbcTemplate,
+                      PlatformTransactionManager transactionManager,
+                      KafkaProducer kafkaProducer,
+                      @Value("${soft-delete.enabled:false}") boolean enabled,
+                      @Value("${sharding.enabled:false}") boolean sharded,
+                      @Value("${soft-delete.purge.batch-size:500}") int batchSize,
+                      @Value("${soft-delete.purge.max-rows-per-second:5000}") int maxRowsPerSecond,
+                      @Value("${soft-delete.purge.idle-interval-ms:1000}") long idleIntervalMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.kafkaProducer = kafkaProducer;
+        if (enabled && sharded) logger.warn("soft-delete.enabled is ignored with sharding, deletes stay immediate");
+        this.enabled = enabled && !sharded;
+        this.batchSize = batchSize;
+        this.maxRowsPerSecond = maxRowsPerSecond;
+        this.idleIntervalMillis = idleIntervalMillis;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Marks the user deleted in the caller's transaction.
+     *
+     * @return whether a visible row was marked
+     */
+    public boolean markDeleted(long id) {
+        boolean updated = jdbcTemplate.update("UPDATE users SET deleted_at = ? WHERE id = ? AND deleted_at IS NULL",
+                Timestamp.valueOf(LocalDateTime.now()), id) == 1;
+        if (updated) marked.increment();
+        return updated;
+    }
+
+    /**
+     * Purges marked rows holding any of {@code emails} in the caller's transaction, so the emails can be reused.
+     * Their events are sent once that transaction commits; if it rolls back the rows stay marked.
+     */
+    public void reclaim(Collection<String> emails) {
+        if (emails.isEmpty()) return;
+        String placeholders = String.join(", ", Collections.nCopies(emails.size(), "?"));
+        List<UserDto> rows = jdbcTemplate.query("SELECT " + COLUMNS + " FROM users WHERE email IN (" + placeholders
+                + ") AND deleted_at IS NOT NULL FOR UPDATE", ROW_MAPPER, emails.toArray());
+        if (rows.isEmpty()) return;
+        delete(rows);
+        AfterCommit.run(() -> {
+            reclaimed.add(rows.size());
+            kafkaProducer.sendUsers("USER_DELETED", rows);
+        });
+    }
+
+    /**
+     * Hard-deletes up to one batch of marked rows, oldest first, and sends their events after the commit.
+     *
+     * @return number of rows removed
+     */
+    public int purgeBatch() {
+        List<UserDto> rows = transactionTemplate.execute(status -> {
+            List<UserDto> batch = jdbcTemplate.query("SELECT " + COLUMNS + " FROM users WHERE deleted_at IS NOT NULL "
+                    + "ORDER BY deleted_at LIMIT ? FOR UPDATE", ROW_MAPPER, batchSize);
+            if (!batch.isEmpty()) delete(batch);
+            return batch;
+        });
+        if (rows == null || rows.isEmpty()) return 0;
+        kafkaProducer.sendUsers("USER_DELETED", rows);
+        purged.add(rows.size());
+        batches.increment();
+        return rows.size();
+    }
+
+    public PurgeStatsDto getStats() {
+        return PurgeStatsDto.builder()
+                .enabled(enabled)
+                .pending(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE deleted_at IS NOT NULL", Long.class))
+                .marked(marked.sum())
+                .purged(purged.sum())
+                .reclaimed(reclaimed.sum())
+                .batches(batches.sum())
+                .batchSize(batchSize)
+                .maxRowsPerSecond(maxRowsPerSecond)
+                .build();
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) return;
+        running = true;
+        purgeThread = new Thread(this::run, "user-purger");
+        purgeThread.setDaemon(true);
+        purgeThread.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (purgeThread == null) return;
+        running = false;
+        purgeThread.interrupt();
+        purgeThread.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    /**
+     * A full batch is followed by a pause that keeps the rate at {@code maxRowsPerSecond}; a partial one means the
+     * backlog is drained, so the thread waits {@code idleIntervalMillis} before looking again.
+     */
+    private void run() {
+        long batchNanos = TimeUnit.SECONDS.toNanos(batchSize) / maxRowsPerSecond;
+        while (running) {
+            long start = System.nanoTime();
+            long pauseNanos;
+            try {
+                int rows = purgeBatch();
+                pauseNanos = rows < batchSize
+                        ? TimeUnit.MILLISECONDS.toNanos(idleIntervalMillis)
+                        : batchNanos - (System.nanoTime() - start);
+            } catch (RuntimeException e) {
+                logger.error("Purging soft-deleted users failed", e);
+                pauseNanos = TimeUnit.MILLISECONDS.toNanos(idleIntervalMillis);
+            }
+            try {
+                if (pauseNanos > 0) TimeUnit.NANOSECONDS.sleep(pauseNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void delete(List<UserDto> rows) {
+        String placeholders = String.join(", ", Collections.nCopies(rows.size(), "?"));
+        jdbcTemplate.update("DELETE FROM users WHERE id IN (" + placeholders + ")",
+                rows.stream().map(UserDto::getId).toArray());
+    }
+}
@@ -0,0 +1,94 @@
+package userapi.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import userapi.dto.UserDto;
+import userapi.event.UserChangedEvent;
+import userapi.handler.exception.GroupCommitTimeoutException;
+import userapi.producer.KafkaProducer;
+import userapi.timing.Phase;
+import userapi.timing.ServerTiming;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * {@link UserServiceImpl} with user creation routed through the {@link UserInsertBatcher}, so concurrent signups
+ * share one INSERT and one commit. Enabled with {@code group-commit.enabled=true}; not combinable with sharding.
+ * The caller holds no transaction while it waits, and the Kafka event is sent once the row is committed.
+ * <p>
+ * A caller waits at most {@code group-commit.timeout-ms} and then fails with {@link GroupCommitTimeoutException}
+ * (503). If its batch was already being written, the row may still be committed, without a Kafka event.
+ */
+@Service
+@Primary
+@ConditionalOnExpression("${group-commit.enabled:false} and !${sharding.enabled:false}")
+public class GroupCommitUserService implements UserService {
+    private final UserServiceImpl userService;
+    private final UserInsertBatcher userInsertBatcher;
+    private final KafkaProducer kafkaProducer;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long timeoutMillis;
+
+    public GroupCommitUserService(UserServiceImpl userService, UserInsertBatcher userInsertBatcher,
+                                  KafkaProducer kafkaProducer, ApplicationEventPublisher eventPublisher,
+                                  @Value("${group-commit.timeout-ms:5000}") long timeoutMillis) {
+        this.userService = userService;
+        this.userInsertBatcher = userInsertBatcher;
+        this.kafkaProducer = kafkaProducer;
+        this.eventPublisher = eventPublisher;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @Override
+    public UserDto createUser(UserDto userDto) {
+        UserDto savedUser;
+        long start = ServerTiming.start();
+        CompletableFuture<UserDto> result = userInsertBatcher.submit(userDto);
+        try {
+            savedUser = result.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw new CompletionException(e.getCause());
+        } catch (TimeoutException e) {
+            // a batch that has not started yet skips this user
+            result.completeExceptionally(e);
+            throw new GroupCommitTimeoutException(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for group commit", e);
+        } finally {
+            ServerTiming.stop(Phase.INSERT, start);
+        }
+        kafkaProducer.sendUser("USER_CREATED", savedUser);
+        eventPublisher.publishEvent(new UserChangedEvent(UserChangedEvent.Type.CREATED, savedUser));
+        return savedUser;
+    }
+
+    @Override
+    public UserDto getUserById(Long id) {
+        return userService.getUserById(id);
+    }
+
+    @Override
+    public List<UserDto> getUsersByIds(List<Long> ids) {
+        return userService.getUsersByIds(ids);
+    }
+
+    @Override
+    public UserDto updateUser(Long id, UserDto userDto) {
+        return userService.updateUser(id, userDto);
+    }
+
+    @Override
+    public void deleteUser(Long id) {
+        userService.deleteUser(id);
+    }
+}
@@ -0,0 +1,201 @@
+package userapi.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import userapi.dto.ShardStatsDto;
+import userapi.dto.UserDto;
+import userapi.event.UserChangedEvent;
+import userapi.handler.exception.EmailExistsException;
+import userapi.handler.exception.UserNotFoundException;
+import userapi.producer.KafkaProducer;
+import userapi.sharding.EmailDirectory;
+import userapi.sharding.ShardIdGenerator;
+import userapi.sharding.ShardRouter;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * {@link UserService} over N shard databases. Single-id operations route by the bucket encoded in the id,
+ * multi-user reads fan out to the owning shards in parallel, and email uniqueness is enforced by the
+ * {@link EmailDirectory}. Enabled with {@code sharding.enabled=true}.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "sharding.enabled", havingValue = "true")
+public class ShardedUserService implements UserService {
+    private static final String TABLE = "sharded_users";
+    private static final String COLUMNS = "id, bucket, name, email, age, created_at, updated_at";
+    private static final RowMapper<UserDto> ROW_MAPPER = (resultSet, rowNum) -> UserDto.builder()
+            .id(resultSet.getLong("id"))
+            .name(resultSet.getString("name"))
+            .email(resultSet.getString("email"))
+            .age(resultSet.getInt("age"))
+            .createdAt(resultSet.getTimestamp("created_at").toLocalDateTime())
+            .updatedAt(resultSet.getTimestamp("updated_at").toLocalDateTime())
+            .build();
+
+    private final ShardRouter shardRouter;
+    private final ShardIdGenerator idGenerator;
+    private final EmailDirectory emailDirectory;
+    private final KafkaProducer kafkaProducer;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ShardedUserService(ShardRouter shardRouter, ShardIdGenerator idGenerator, EmailDirectory emailDirectory,
+                              KafkaProducer kafkaProducer, ApplicationEventPublisher eventPublisher) {
+        this.shardRouter = shardRouter;
+        this.idGenerator = idGenerator;
+        this.emailDirectory = emailDirectory;
+        this.kafkaProducer = kafkaProducer;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public UserDto createUser(UserDto userDto) {
+        int bucket = ShardIdGenerator.bucketFor(userDto.getEmail());
+        long id = idGenerator.nextId(bucket);
+        if (!emailDirectory.claim(userDto.getEmail(), id)) throw new EmailExistsException();
+
+        LocalDateTime now = LocalDateTime.now();
+        UserDto savedUser = UserDto.builder()
+                .id(id)
+                .name(userDto.getName())
+                .email(userDto.getEmail())
+                .age(userDto.getAge())
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+
+        Lock lock = shardRouter.bucketLock(bucket).readLock();
+        lock.lock();
+        try {
+            shardRouter.shard(shardRouter.shardOfBucket(bucket)).update(
+                    "INSERT INTO " + TABLE + " (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?)",
+                    id, bucket, savedUser.getName(), savedUser.getEmail(), savedUser.getAge(),
+                    Timestamp.valueOf(now), Timestamp.valueOf(now));
+        } catch (RuntimeException e) {
+            emailDirectory.release(userDto.getEmail(), id);
+            throw e;
+        } finally {
+            lock.unlock();
+        }
+
+        kafkaProducer.sendUser("USER_CREATED", savedUser);
+        eventPublisher.publishEvent(new UserChangedEvent(UserChangedEvent.Type.CREATED, savedUser));
+        return savedUser;
+    }
+
+    @Override
+    public UserDto getUserById(Long id) {
+        return find(id);
+    }
+
+    @Override
+    public List<UserDto> getUsersByIds(List<Long> ids) {
+        List<Long> distinctIds = ids.stream().distinct().toList();
+        Map<Integer, List<Long>> idsByShard = new HashMap<>();
+        for (Long id : distinctIds) {
+            idsByShard.computeIfAbsent(shardRouter.shardOfId(id), shard -> new ArrayList<>()).add(id);
+        }
+
+        List<CompletableFuture<List<UserDto>>> futures = new ArrayList<>();
+        idsByShard.forEach((shard, shardIds) -> futures.add(shardRouter.onShard(shard, index -> {
+            String placeholders = String.join(", ", Collections.nCopies(shardIds.size(), "?"));
+            return shardRouter.shard(index).query(
+                    "SELECT " + COLUMNS + " FROM " + TABLE + " WHERE id IN (" + placeholders + ")",
+                    ROW_MAPPER, shardIds.toArray());
+        })));
+
+        Map<Long, UserDto> found = new HashMap<>();
+        futures.forEach(future -> future.join().forEach(user -> found.put(user.getId(), user)));
+        return distinctIds.stream().map(found::get).filter(Objects::nonNull).toList();
+    }
+
+    @Override
+    public UserDto updateUser(Long id, UserDto userDto) {
+        int bucket = ShardIdGenerator.bucketOf(id);
+        Lock lock = shardRouter.bucketLock(bucket).readLock();
+        lock.lock();
+        try {
+            UserDto current = find(id);
+            boolean emailChanged = !current.getEmail().equalsIgnoreCase(userDto.getEmail());
+            if (emailChanged && !emailDirectory.claim(userDto.getEmail(), id)) throw new EmailExistsException();
+
+            LocalDateTime now = LocalDateTime.now();
+            try {
+                shardRouter.shard(shardRouter.shardOfBucket(bucket)).update(
+                        "UPDATE " + TABLE + " SET name = ?, email = ?, age = ?, updated_at = ? WHERE id = ?",
+                        userDto.getName(), userDto.getEmail(), userDto.getAge(), Timestamp.valueOf(now), id);
+            } catch (RuntimeException e) {
+                if (emailChanged) emailDirectory.release(userDto.getEmail(), id);
+                throw e;
+            }
+            if (emailChanged) emailDirectory.release(current.getEmail(), id);
+
+            UserDto savedUser = UserDto.builder()
+                    .id(id)
+                    .name(userDto.getName())
+                    .email(userDto.getEmail())
+                    .age(userDto.getAge())
+                    .createdAt(current.getCreatedAt())
+                    .updatedAt(now)
+                    .build();
+            kafkaProducer.sendUser("USER_UPDATED", savedUser);
+            eventPublisher.publishEvent(new UserChangedEvent(UserChangedEvent.Type.UPDATED, savedUser, current));
+            return savedUser;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void deleteUser(Long id) {
+        int bucket = ShardIdGenerator.bucketOf(id);
+        Lock lock = shardRouter.bucketLock(bucket).readLock();
+        lock.lock();
+        try {
+            UserDto user = find(id);
+            kafkaProducer.sendUser("USER_DELETED", user);
+            shardRouter.shard(shardRouter.shardOfBucket(bucket)).update("DELETE FROM " + TABLE + " WHERE id = ?", id);
+            emailDirectory.release(user.getEmail(), id);
+            eventPublisher.publishEvent(new UserChangedEvent(UserChangedEvent.Type.DELETED, user));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<ShardStatsDto> getShardStats() {
+        int[] assignments = shardRouter.bucketAssignments();
+        List<Long> counts = shardRouter.fanOut(shard ->
+                shardRouter.shard(shard).queryForObject("SELECT COUNT(*) FROM " + TABLE, Long.class));
+        List<ShardStatsDto> stats = new ArrayList<>();
+        for (int shard = 0; shard < counts.size(); shard++) {
+            int owner = shard;
+            stats.add(ShardStatsDto.builder()
+                    .shard(shard)
+                    .buckets((int) Arrays.stream(assignments).filter(assigned -> assigned == owner).count())
+                    .users(counts.get(shard))
+                    .build());
+        }
+        return stats;
+    }
+
+    private UserDto find(Long id) {
+        List<UserDto> users = shardRouter.shard(shardRouter.shardOfId(id))
+                .query("SELECT " + COLUMNS + " FROM " + TABLE + " WHERE id = ?", ROW_MAPPER, id);
+        if (users.isEmpty()) throw new UserNotFoundException(id);
+        return users.get(0);
+    }
+}
@@ -0,0 +1,250 @@
+package userapi.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import userapi.dto.UserDto;
+import userapi.handler.exception.EmailExistsException;
+import userapi.purge.UserPurger;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Group commit for user creation: concurrent {@link #submit} calls are collected for up to
+ * {@code group-commit.max-wait-ms} or {@code group-commit.max-batch-size} users and written by one flusher thread
+ * as a single multi-row INSERT in one transaction. Every caller gets its own row back, or its own
+ * {@link EmailExistsException} when the email is taken or repeated earlier in the same batch.
+ * <p>
+ * If the batch insert violates a constraint (a concurrent writer took an email after the check, or a row is
+ * invalid), the batch is retried row by row so that only the offending callers fail. Callers whose future is
+ * already completed (they gave up waiting) are left out of the batch.
+ * <p>
+ * Whenever the flusher thread exits, on shutdown or after an unexpected error, every caller still waiting fails.
+ */
+@Component
+@ConditionalOnProperty(name = "group-commit.enabled", havingValue = "true")
+public class UserInsertBatcher {
+    private static final Logger logger = LoggerFactory.getLogger(UserInsertBatcher.class);
+    private static final String INSERT = "INSERT INTO users (name, email, age, created_at, updated_at) VALUES ";
+    private static final String ROW = "(?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UserPurger userPurger;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private Thread flusher;
+    private volatile boolean running;
+
+    private record Pending(UserDto user, CompletableFuture<UserDto> result) {
+    }
+
+    public UserInsertBatcher(JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             UserPurger userPurger,
+                             @Value("${group-commit.max-batch-size:64}") int maxBatchSize,
+                             @Value("${group-commit.max-wait-ms:2}") long maxWaitMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.userPurger = userPurger;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+    }
+
+    public CompletableFuture<UserDto> submit(UserDto user) {
+        CompletableFuture<UserDto> result = new CompletableFuture<>();
+        if (!running) {
+            result.completeExceptionally(new IllegalStateException("Group commit is shut down"));
+            return result;
+        }
+        queue.add(new Pending(user, result));
+        // the flusher may have exited after the check above and will not see this entry
+        if (!running) failQueued();
+        return result;
+    }
+
+    public long getBatches() {
+        return batches.sum();
+    }
+
+    public long getRows() {
+        return rows.sum();
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        flusher = new Thread(this::run, "user-group-commit");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        flusher.interrupt();
+        flusher.join(TimeUnit.SECONDS.toMillis(10));
+        failQueued();
+    }
+
+    private void failQueued() {
+        List<Pending> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        remaining.forEach(pending -> pending.result().completeExceptionally(
+                new IllegalStateException("Group commit is shut down")));
+    }
+
+    private void run() {
+        List<Pending> batch = new ArrayList<>(maxBatchSize);
+        try {
+            flushUntilStopped(batch);
+        } finally {
+            running = false;
+            batch.forEach(pending -> pending.result().completeExceptionally(
+                    new IllegalStateException("Group commit is shut down")));
+            failQueued();
+        }
+    }
+
+    private void flushUntilStopped(List<Pending> batch) {
+        while (running) {
+            try {
+                batch.clear();
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + maxWaitNanos;
+                while (batch.size() < maxBatchSize) {
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= maxBatchSize || remaining <= 0) break;
+                    Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                batch.forEach(pending -> pending.result().completeExceptionally(e));
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Group commit of {} users failed", batch.size(), e);
+                batch.forEach(pending -> pending.result().completeExceptionally(e));
+            }
+        }
+    }
+
+    private void flush(List<Pending> batch) {
+        List<Pending> accepted = new ArrayList<>(batch.size());
+        Set<String> seen = new HashSet<>();
+        for (Pending pending : batch) {
+            if (pending.result().isDone()) continue;
+            if (seen.add(pending.user().getEmail())) accepted.add(pending);
+            else pending.result().completeExceptionally(new EmailExistsException());
+        }
+
+        List<UserDto> saved;
+        try {
+            saved = transactionTemplate.execute(status -> {
+                Set<String> existing = existingEmails(accepted);
+                accepted.removeIf(pending -> {
+                    if (!existing.contains(pending.user().getEmail())) return false;
+                    pending.result().completeExceptionally(new EmailExistsException());
+                    return true;
+                });
+                return insert(accepted.stream().map(Pending::user).toList());
+            });
+        } catch (DataIntegrityViolationException e) {
+            logger.debug("Batch of {} users hit a constraint, retrying row by row", accepted.size());
+            accepted.forEach(this::insertSingle);
+            return;
+        }
+        batches.increment();
+        rows.add(saved.size());
+        for (int i = 0; i < accepted.size(); i++) accepted.get(i).result().complete(saved.get(i));
+    }
+
+    private void insertSingle(Pending pending) {
+        try {
+            UserDto saved = transactionTemplate.execute(status -> {
+                if (!existingEmails(List.of(pending)).isEmpty()) throw new EmailExistsException();
+                return insert(List.of(pending.user())).get(0);
+            });
+            rows.increment();
+            pending.result().complete(saved);
+        } catch (DuplicateKeyException e) {
+            pending.result().completeExceptionally(new EmailExistsException());
+        } catch (RuntimeException e) {
+            pending.result().completeExceptionally(e);
+        }
+    }
+
+    private Set<String> existingEmails(List<Pending> pending) {
+        if (pending.isEmpty()) return Set.of();
+        String placeholders = String.join(", ", Collections.nCopies(pending.size(), "?"));
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT email FROM users WHERE email IN (" + placeholders + ") AND deleted_at IS NULL",
+                String.class, pending.stream().map(p -> p.user().getEmail()).toArray()));
+    }
+
+    /**
+     * One multi-row INSERT; generated ids come back in VALUES order.
+     */
+    private List<UserDto> insert(List<UserDto> users) {
+        if (users.isEmpty()) return List.of();
+        if (userPurger.isEnabled()) userPurger.reclaim(users.stream().map(UserDto::getEmail).toList());
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp timestamp = Timestamp.valueOf(now);
+        String sql = INSERT + String.join(", ", Collections.nCopies(users.size(), ROW));
+        return jdbcTemplate.execute(connection -> connection.prepareStatement(sql, new String[]{"id"}),
+                (PreparedStatement statement) -> {
+                    int index = 1;
+                    for (UserDto user : users) {
+                        statement.setString(index++, user.getName());
+                        statement.setString(index++, user.getEmail());
+                        statement.setObject(index++, user.getAge());
+                        statement.setTimestamp(index++, timestamp);
+                        statement.setTimestamp(index++, timestamp);
+                    }
+                    statement.executeUpdate();
+                    List<UserDto> saved = new ArrayList<>(users.size());
+                    try (ResultSet keys = statement.getGeneratedKeys()) {
+                        for (UserDto user : users) {
+                            if (!keys.next()) throw new IllegalStateException("Missing generated id");
+                            saved.add(UserDto.builder()
+                                    .id(keys.getLong(1))
+                                    .name(user.getName())
+                                    .email(user.getEmail())
+                                    .age(user.getAge())
+                                    .createdAt(now)
+                                    .updatedAt(now)
+                                    .build());
+                        }
+                    }
+                    return saved;
+                });
+    }
+}
@@ -3,12 +3,19 @@ package userapi.service;
 import org.springframework.stereotype.Service;
 import userapi.dto.UserDto;
 
+import java.util.List;
+
 @Service
 public interface UserService {
     UserDto createUser(UserDto userDto);
 
     UserDto getUserById(Long id);
 
+    /**
+     * Returns the users that exist among {@code ids}, in request order; unknown ids are skipped.
+     */
+    List<UserDto> getUsersByIds(List<Long> ids);
+
     UserDto updateUser(Long id, UserDto userDto);
 
     void deleteUser(Long id);
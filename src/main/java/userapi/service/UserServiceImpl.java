@@ -1,15 +1,31 @@
 package userapi.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 import userapi.dto.UserDto;
+import userapi.event.AfterCommit;
+import userapi.event.UserChangedEvent;
 import userapi.handler.exception.EmailExistsException;
 import userapi.handler.exception.UserNotFoundException;
 import userapi.mapper.UserMapper;
 import userapi.model.User;
 import userapi.producer.KafkaProducer;
+import userapi.purge.UserPurger;
 import userapi.repository.UserRepository;
+import userapi.timing.Phase;
+import userapi.timing.ServerTiming;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -19,40 +35,100 @@ public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final UserMapper userMapper;
     private final KafkaProducer kafkaProducer;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UserPurger userPurger;
+    private final SingleFlight<Long, UserDto> userLoads = new SingleFlight<>(Duration.ofSeconds(2));
 
     @Override
     public UserDto createUser(UserDto userDto) {
+        long start = ServerTiming.start();
         User user = userMapper.toEntity(userDto);
-        if (userRepository.existsByEmail(userDto.getEmail())) throw new EmailExistsException();
+        ServerTiming.stop(Phase.MAPPER, start);
+
+        start = ServerTiming.start();
+        boolean exists = userRepository.existsByEmail(userDto.getEmail());
+        ServerTiming.stop(Phase.EXISTS, start);
+        if (exists) throw new EmailExistsException();
+        if (userPurger.isEnabled()) userPurger.reclaim(List.of(userDto.getEmail()));
+
+        start = ServerTiming.start();
+        User saved = userRepository.save(user);
+        ServerTiming.stop(Phase.INSERT, start);
 
-        UserDto savedUser = userMapper.toDto(userRepository.save(user));
+        start = ServerTiming.start();
+        UserDto savedUser = userMapper.toDto(saved);
+        ServerTiming.stop(Phase.MAPPER, start);
 
-        kafkaProducer.sendUser("USER_CREATED", savedUser.getEmail());
+        AfterCommit.run(() -> kafkaProducer.sendUser("USER_CREATED", savedUser));
+        eventPublisher.publishEvent(new UserChangedEvent(UserChangedEvent.Type.CREATED, savedUser));
         return savedUser;
     }
 
+    /**
+     * Concurrent calls for the same id share one load. Runs without a surrounding transaction so that callers
+     * waiting for another caller's load do not hold a connection.
+     */
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public UserDto getUserById(Long id) {
-        return userMapper.toDto(userRepository.findById(id).orElseThrow(() -> new UserNotFoundException(id)));
+        return userLoads.load(id, () ->
+                userMapper.toDto(userRepository.findById(id).orElseThrow(() -> new UserNotFoundException(id))));
+    }
+
+    @Override
+    public List<UserDto> getUsersByIds(List<Long> ids) {
+        Map<Long, User> found = userRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        return ids.stream().distinct().map(found::get).filter(Objects::nonNull).map(userMapper::toDto).toList();
     }
 
     @Override
     public UserDto updateUser(Long id, UserDto userDto) {
         User updatedUser = userRepository.findById(id).orElseThrow(() -> new UserNotFoundException(id));
 
-        if (userRepository.existsByEmail(userDto.getEmail())) throw new EmailExistsException();
+        long start = ServerTiming.start();
+        boolean exists = userRepository.existsByEmail(userDto.getEmail());
+        ServerTiming.stop(Phase.EXISTS, start);
+        if (exists) throw new EmailExistsException();
+        if (userPurger.isEnabled()) userPurger.reclaim(List.of(userDto.getEmail()));
 
+        UserDto previousUser = UserDto.builder()
+                .id(updatedUser.getId())
+                .name(updatedUser.getName())
+                .email(updatedUser.getEmail())
+                .age(updatedUser.getAge())
+                .createdAt(updatedUser.getCreatedAt())
+                .updatedAt(updatedUser.getUpdatedAt())
+                .build();
         updatedUser.setName(userDto.getName());
         updatedUser.setEmail(userDto.getEmail());
         updatedUser.setAge(userDto.getAge());
 
-        return userMapper.toDto(userRepository.save(updatedUser));
+        UserDto savedUser = userMapper.toDto(userRepository.saveAndFlush(updatedUser));
+        AfterCommit.run(() -> kafkaProducer.sendUser("USER_UPDATED", savedUser));
+        eventPublisher.publishEvent(new UserChangedEvent(UserChangedEvent.Type.UPDATED, savedUser, previousUser));
+        return savedUser;
+    }
+
+    /**
+     * A load that started before this change committed may return the old state; later callers must not join it.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void onUserChanged(UserChangedEvent event) {
+        userLoads.forget(event.user().getId());
     }
 
     @Override
     public void deleteUser(Long id) {
         User user = userRepository.findById(id).orElseThrow(() -> new UserNotFoundException(id));
-        kafkaProducer.sendUser("USER_DELETED", user.getEmail());
-        userRepository.deleteById(user.getId());
+        UserDto deletedUser = userMapper.toDto(user);
+        if (userPurger.isEnabled()) {
+            userPurger.markDeleted(user.getId());
+        } else {
+            userRepository.deleteById(user.getId());
+            AfterCommit.run(() -> kafkaProducer.sendUser("USER_DELETED", deletedUser));
+        }
+        eventPublisher.publishEvent(new UserChangedEvent(UserChangedEvent.Type.DELETED, deletedUser));
     }
 }
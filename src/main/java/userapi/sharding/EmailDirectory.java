@@ -0,0 +1,79 @@
+package userapi.sharding;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Global email uniqueness for sharded users: a small {@code email -> user_id} table on the directory shard.
+ * The owning shard follows from the id, so the directory never changes when buckets move.
+ * <p>
+ * A claim and the shard write that follows it are not atomic, so a crash in between leaves a claim that no user
+ * row backs. {@link #claim} takes such a claim over once it is older than {@code orphanClaimGraceMillis}, which
+ * must exceed the longest time between a claim and its shard write.
+ */
+public class EmailDirectory {
+    private static final Logger logger = LoggerFactory.getLogger(EmailDirectory.class);
+
+    private final ShardRouter shardRouter;
+    private final JdbcTemplate directory;
+    private final long orphanClaimGraceMillis;
+
+    public EmailDirectory(ShardRouter shardRouter, long orphanClaimGraceMillis) {
+        this.shardRouter = shardRouter;
+        this.directory = shardRouter.directory();
+        this.orphanClaimGraceMillis = orphanClaimGraceMillis;
+    }
+
+    /**
+     * @return {@code false} if the email already belongs to another user
+     */
+    public boolean claim(String email, long userId) {
+        String normalized = normalize(email);
+        if (insert(normalized, userId)) return true;
+        if (!releaseOrphan(normalized)) return false;
+        return insert(normalized, userId);
+    }
+
+    public void release(String email, long userId) {
+        directory.update("DELETE FROM user_email_directory WHERE email = ? AND user_id = ?", normalize(email), userId);
+    }
+
+    private boolean insert(String email, long userId) {
+        try {
+            directory.update("INSERT INTO user_email_directory (email, user_id, claimed_at) VALUES (?, ?, ?)",
+                    email, userId, Timestamp.valueOf(LocalDateTime.now()));
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Deletes the claim on {@code email} if it is past the grace period and its user row no longer has that email.
+     */
+    private boolean releaseOrphan(String email) {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusNanos(orphanClaimGraceMillis * 1_000_000));
+        List<Long> owners = directory.queryForList(
+                "SELECT user_id FROM user_email_directory WHERE email = ? AND claimed_at < ?", Long.class, email, cutoff);
+        if (owners.isEmpty()) return false;
+        long owner = owners.get(0);
+        Integer backed = shardRouter.shard(shardRouter.shardOfId(owner)).queryForObject(
+                "SELECT COUNT(*) FROM " + ShardRouter.USERS_TABLE + " WHERE id = ? AND LOWER(email) = ?",
+                Integer.class, owner, email);
+        if (backed != null && backed > 0) return false;
+        int released = directory.update("DELETE FROM user_email_directory WHERE email = ? AND user_id = ? AND claimed_at < ?",
+                email, owner, cutoff);
+        if (released > 0) logger.warn("Released orphaned email claim of user {}", owner);
+        return released > 0;
+    }
+
+    private static String normalize(String email) {
+        return email.toLowerCase();
+    }
+}
@@ -0,0 +1,63 @@
+package userapi.sharding;
+
+import java.time.Instant;
+
+/**
+ * Time-ordered 63-bit ids that carry their bucket:
+ * {@code [41 bits millis since 2024-01-01][10 bits bucket][5 bits node][7 bits sequence]}.
+ * The bucket is chosen by hashing the email on creation and mapped to a physical shard by {@link ShardRouter},
+ * so every single-id operation can be routed without a lookup.
+ */
+public class ShardIdGenerator {
+    public static final int BUCKET_BITS = 10;
+    public static final int BUCKETS = 1 << BUCKET_BITS;
+    private static final int NODE_BITS = 5;
+    private static final int SEQUENCE_BITS = 7;
+    private static final int SEQUENCE_MASK = (1 << SEQUENCE_BITS) - 1;
+    private static final long EPOCH = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+
+    private final int nodeId;
+    private long lastMillis = -1;
+    private int sequence;
+
+    public ShardIdGenerator(int nodeId) {
+        if (nodeId < 0 || nodeId >= 1 << NODE_BITS) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + ((1 << NODE_BITS) - 1));
+        }
+        this.nodeId = nodeId;
+    }
+
+    public synchronized long nextId(int bucket) {
+        long now = Math.max(System.currentTimeMillis(), lastMillis);
+        if (now == lastMillis) {
+            sequence = (sequence + 1) & SEQUENCE_MASK;
+            if (sequence == 0) {
+                while (now <= lastMillis) {
+                    Thread.onSpinWait();
+                    now = System.currentTimeMillis();
+                }
+            }
+        } else {
+            sequence = 0;
+        }
+        lastMillis = now;
+        return (now - EPOCH) << (BUCKET_BITS + NODE_BITS + SEQUENCE_BITS)
+                | (long) bucket << (NODE_BITS + SEQUENCE_BITS)
+                | (long) nodeId << SEQUENCE_BITS
+                | sequence;
+    }
+
+    public static int bucketOf(long id) {
+        return (int) (id >>> (NODE_BITS + SEQUENCE_BITS)) & (BUCKETS - 1);
+    }
+
+    public static int bucketFor(String email) {
+        int hash = email.toLowerCase().hashCode();
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return hash & (BUCKETS - 1);
+    }
+}
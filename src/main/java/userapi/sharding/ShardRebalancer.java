@@ -0,0 +1,148 @@
+package userapi.sharding;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import userapi.dto.RebalanceResultDto;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+
+import static userapi.sharding.ShardRouter.USERS_TABLE;
+
+/**
+ * Moves whole buckets onto newly added shards until every shard owns an even share.
+ * Each bucket is copied, reassigned and deleted from its old shard while its write lock is held, so
+ * writes to that bucket from this instance wait for the move; reads keep being served from the old owner.
+ * <p>
+ * A move is recorded in {@code shard_bucket_moves} before it starts and removed once the old copy is gone, and the
+ * copy first clears whatever an earlier attempt left on the target. A rebalance interrupted mid-move is completed
+ * by the next {@link #rebalance()}.
+ */
+public class ShardRebalancer {
+    private static final Logger logger = LoggerFactory.getLogger(ShardRebalancer.class);
+    private static final String COLUMNS = "id, bucket, name, email, age, created_at, updated_at";
+
+    private final ShardRouter shardRouter;
+
+    public ShardRebalancer(ShardRouter shardRouter) {
+        this.shardRouter = shardRouter;
+    }
+
+    public RebalanceResultDto plan() {
+        return RebalanceResultDto.builder()
+                .dryRun(true)
+                .moves(computeMoves())
+                .build();
+    }
+
+    public RebalanceResultDto rebalance() {
+        int resumed = resumePendingMoves();
+        List<RebalanceResultDto.BucketMove> moves = computeMoves();
+        long movedUsers = 0;
+        int movedBuckets = 0;
+        for (RebalanceResultDto.BucketMove move : moves) {
+            movedUsers += moveBucket(move);
+            movedBuckets++;
+            if (movedBuckets % 32 == 0 || movedBuckets == moves.size()) {
+                logger.info("Rebalancing: {}/{} buckets moved, {} users", movedBuckets, moves.size(), movedUsers);
+            }
+        }
+        return RebalanceResultDto.builder()
+                .dryRun(false)
+                .moves(moves)
+                .movedBuckets(movedBuckets)
+                .movedUsers(movedUsers)
+                .resumedMoves(resumed)
+                .build();
+    }
+
+    /**
+     * A bucket already assigned to its target only needs the old copy deleted; any other one is moved again.
+     */
+    private int resumePendingMoves() {
+        List<RebalanceResultDto.BucketMove> pending = shardRouter.directory().query(
+                "SELECT bucket, from_shard, to_shard FROM shard_bucket_moves ORDER BY bucket",
+                (resultSet, rowNum) -> new RebalanceResultDto.BucketMove(resultSet.getInt("bucket"),
+                        resultSet.getInt("from_shard"), resultSet.getInt("to_shard")));
+        for (RebalanceResultDto.BucketMove move : pending) {
+            logger.warn("Resuming interrupted move of bucket {} from shard {} to shard {}",
+                    move.getBucket(), move.getFromShard(), move.getToShard());
+            if (shardRouter.shardOfBucket(move.getBucket()) == move.getToShard()) {
+                Lock lock = shardRouter.bucketLock(move.getBucket()).writeLock();
+                lock.lock();
+                try {
+                    finishMove(move);
+                } finally {
+                    lock.unlock();
+                }
+            } else {
+                moveBucket(move);
+            }
+        }
+        return pending.size();
+    }
+
+    private List<RebalanceResultDto.BucketMove> computeMoves() {
+        int shards = shardRouter.shardCount();
+        int[] assignments = shardRouter.bucketAssignments();
+        List<Deque<Integer>> owned = new ArrayList<>();
+        for (int shard = 0; shard < shards; shard++) owned.add(new ArrayDeque<>());
+        for (int bucket = 0; bucket < assignments.length; bucket++) owned.get(assignments[bucket]).add(bucket);
+
+        int[] target = new int[shards];
+        for (int shard = 0; shard < shards; shard++) {
+            target[shard] = ShardIdGenerator.BUCKETS / shards + (shard < ShardIdGenerator.BUCKETS % shards ? 1 : 0);
+        }
+
+        List<RebalanceResultDto.BucketMove> moves = new ArrayList<>();
+        for (int to = 0; to < shards; to++) {
+            for (int from = 0; from < shards && owned.get(to).size() < target[to]; from++) {
+                while (owned.get(from).size() > target[from] && owned.get(to).size() < target[to]) {
+                    int bucket = owned.get(from).removeLast();
+                    owned.get(to).add(bucket);
+                    moves.add(new RebalanceResultDto.BucketMove(bucket, from, to));
+                }
+            }
+        }
+        return moves;
+    }
+
+    private long moveBucket(RebalanceResultDto.BucketMove move) {
+        Lock lock = shardRouter.bucketLock(move.getBucket()).writeLock();
+        lock.lock();
+        try {
+            shardRouter.directory().update("DELETE FROM shard_bucket_moves WHERE bucket = ?", move.getBucket());
+            shardRouter.directory().update("INSERT INTO shard_bucket_moves (bucket, from_shard, to_shard) VALUES (?, ?, ?)",
+                    move.getBucket(), move.getFromShard(), move.getToShard());
+
+            List<Map<String, Object>> rows = shardRouter.shard(move.getFromShard())
+                    .queryForList("SELECT " + COLUMNS + " FROM " + USERS_TABLE + " WHERE bucket = ?", move.getBucket());
+            List<Object[]> batch = rows.stream()
+                    .map(row -> new Object[]{row.get("id"), row.get("bucket"), row.get("name"), row.get("email"),
+                            row.get("age"), row.get("created_at"), row.get("updated_at")})
+                    .toList();
+
+            shardRouter.transaction(move.getToShard()).executeWithoutResult(status -> {
+                JdbcTemplate target = shardRouter.shard(move.getToShard());
+                target.update("DELETE FROM " + USERS_TABLE + " WHERE bucket = ?", move.getBucket());
+                target.batchUpdate("INSERT INTO " + USERS_TABLE + " (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?)", batch);
+            });
+            shardRouter.assign(move.getBucket(), move.getToShard());
+            finishMove(move);
+            return rows.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void finishMove(RebalanceResultDto.BucketMove move) {
+        shardRouter.shard(move.getFromShard())
+                .update("DELETE FROM " + USERS_TABLE + " WHERE bucket = ?", move.getBucket());
+        shardRouter.directory().update("DELETE FROM shard_bucket_moves WHERE bucket = ?", move.getBucket());
+    }
+}
@@ -0,0 +1,165 @@
+package userapi.sharding;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntFunction;
+
+/**
+ * Owns the shard datasources and the bucket-to-shard map persisted in {@code shard_buckets} on the directory shard.
+ * Writes to a bucket hold its read lock; {@link ShardRebalancer} takes the write lock while the bucket moves.
+ */
+public class ShardRouter implements Closeable {
+    static final String USERS_TABLE = "sharded_users";
+
+    private final List<DataSource> dataSources;
+    private final List<JdbcTemplate> shards = new ArrayList<>();
+    private final List<TransactionTemplate> transactions = new ArrayList<>();
+    private final JdbcTemplate directory;
+    private final ExecutorService fanOutExecutor;
+    private final ReadWriteLock[] bucketLocks = new ReadWriteLock[ShardIdGenerator.BUCKETS];
+    private volatile int[] bucketToShard;
+
+    public ShardRouter(List<DataSource> dataSources, int directoryShard, int fanOutThreads) {
+        this.dataSources = dataSources;
+        for (DataSource dataSource : dataSources) {
+            shards.add(new JdbcTemplate(dataSource));
+            transactions.add(new TransactionTemplate(new DataSourceTransactionManager(dataSource)));
+        }
+        this.directory = shards.get(directoryShard);
+        this.fanOutExecutor = Executors.newFixedThreadPool(Math.min(fanOutThreads, dataSources.size()), runnable -> {
+            Thread thread = new Thread(runnable, "shard-fan-out");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < bucketLocks.length; i++) bucketLocks[i] = new ReentrantReadWriteLock();
+        createSchema();
+        loadBuckets();
+    }
+
+    public int shardCount() {
+        return shards.size();
+    }
+
+    public JdbcTemplate shard(int shard) {
+        return shards.get(shard);
+    }
+
+    public TransactionTemplate transaction(int shard) {
+        return transactions.get(shard);
+    }
+
+    public JdbcTemplate directory() {
+        return directory;
+    }
+
+    public int shardOfId(long id) {
+        return bucketToShard[ShardIdGenerator.bucketOf(id)];
+    }
+
+    public int shardOfBucket(int bucket) {
+        return bucketToShard[bucket];
+    }
+
+    public int[] bucketAssignments() {
+        return bucketToShard.clone();
+    }
+
+    public ReadWriteLock bucketLock(int bucket) {
+        return bucketLocks[bucket];
+    }
+
+    /**
+     * Runs {@code query} against every shard in parallel and returns the results in shard order.
+     */
+    public <T> List<T> fanOut(IntFunction<T> query) {
+        List<CompletableFuture<T>> futures = new ArrayList<>();
+        for (int shard = 0; shard < shards.size(); shard++) {
+            int index = shard;
+            futures.add(CompletableFuture.supplyAsync(() -> query.apply(index), fanOutExecutor));
+        }
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+
+    public <T> CompletableFuture<T> onShard(int shard, IntFunction<T> query) {
+        return CompletableFuture.supplyAsync(() -> query.apply(shard), fanOutExecutor);
+    }
+
+    /**
+     * Persists a new owner for {@code bucket}; callers hold the bucket's write lock.
+     */
+    void assign(int bucket, int shard) {
+        directory.update("UPDATE shard_buckets SET shard = ? WHERE bucket = ?", shard, bucket);
+        int[] updated = bucketToShard.clone();
+        updated[bucket] = shard;
+        bucketToShard = updated;
+    }
+
+    @Override
+    public void close() throws IOException {
+        fanOutExecutor.shutdown();
+        for (DataSource dataSource : dataSources) {
+            if (dataSource instanceof Closeable closeable) closeable.close();
+        }
+    }
+
+    private void createSchema() {
+        for (JdbcTemplate shard : shards) {
+            shard.execute("CREATE TABLE IF NOT EXISTS " + USERS_TABLE + " ("
+                    + "id BIGINT PRIMARY KEY, "
+                    + "bucket INT NOT NULL, "
+                    + "name VARCHAR(255) NOT NULL, "
+                    + "email VARCHAR(255) NOT NULL, "
+                    + "age INT NOT NULL, "
+                    + "created_at TIMESTAMP NOT NULL, "
+                    + "updated_at TIMESTAMP NOT NULL)");
+            shard.execute("CREATE INDEX IF NOT EXISTS " + USERS_TABLE + "_bucket_idx ON " + USERS_TABLE + " (bucket)");
+        }
+        directory.execute("CREATE TABLE IF NOT EXISTS user_email_directory ("
+                + "email VARCHAR(255) PRIMARY KEY, "
+                + "user_id BIGINT NOT NULL)");
+        directory.execute("ALTER TABLE user_email_directory "
+                + "ADD COLUMN IF NOT EXISTS claimed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL");
+        directory.execute("CREATE TABLE IF NOT EXISTS shard_buckets ("
+                + "bucket INT PRIMARY KEY, "
+                + "shard INT NOT NULL)");
+        directory.execute("CREATE TABLE IF NOT EXISTS shard_bucket_moves ("
+                + "bucket INT PRIMARY KEY, "
+                + "from_shard INT NOT NULL, "
+                + "to_shard INT NOT NULL)");
+    }
+
+    private void loadBuckets() {
+        int[] assignments = new int[ShardIdGenerator.BUCKETS];
+        Integer stored = directory.queryForObject("SELECT COUNT(*) FROM shard_buckets", Integer.class);
+        if (stored == null || stored == 0) {
+            List<Object[]> rows = new ArrayList<>();
+            for (int bucket = 0; bucket < assignments.length; bucket++) {
+                assignments[bucket] = bucket % shards.size();
+                rows.add(new Object[]{bucket, assignments[bucket]});
+            }
+            directory.batchUpdate("INSERT INTO shard_buckets (bucket, shard) VALUES (?, ?)", rows);
+        } else {
+            directory.query("SELECT bucket, shard FROM shard_buckets", resultSet -> {
+                int shard = resultSet.getInt("shard");
+                if (shard >= shards.size()) {
+                    throw new IllegalStateException("Bucket " + resultSet.getInt("bucket")
+                            + " is assigned to shard " + shard + " which is not configured");
+                }
+                assignments[resultSet.getInt("bucket")] = shard;
+            });
+        }
+        bucketToShard = assignments;
+    }
+}
@@ -0,0 +1,35 @@
+package userapi.sharding;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "sharding")
+public class ShardingProperties {
+    private boolean enabled;
+    /**
+     * Distinguishes application instances in generated ids, 0..31.
+     */
+    private int nodeId;
+    /**
+     * Index of the shard that also hosts the email directory and the bucket map.
+     */
+    private int directoryShard;
+    private int fanOutThreads = 8;
+    /**
+     * Age after which an email claim whose user row is missing counts as left behind by a crash and may be taken over.
+     */
+    private long orphanClaimGraceMillis = 60000;
+    private List<Shard> shards = new ArrayList<>();
+
+    @Data
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
@@ -0,0 +1,248 @@
+package userapi.stats;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import userapi.dto.UserDto;
+import userapi.dto.UserStatsDto;
+import userapi.event.UserChangedEvent;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Totals, age histogram and users per signup day kept in memory, so the statistics endpoint never scans
+ * {@code users}. The aggregates are seeded with one streaming scan at startup and then maintained from
+ * committed {@link UserChangedEvent}s with {@link LongAdder}s, so concurrent writers do not contend.
+ * <p>
+ * Every {@code stats.reconcile-interval-ms} the table is scanned again and compared cell by cell. Writes that
+ * commit during the scan make single comparisons noisy, so a cell is only corrected when the same drift is
+ * seen by two consecutive reconciliations.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@ConditionalOnExpression("${stats.enabled:true} and !${sharding.enabled:false}")
+public class UserStatistics {
+    private static final Logger logger = LoggerFactory.getLogger(UserStatistics.class);
+    private static final int[] AGE_BOUNDS = {0, 18, 25, 35, 45, 55, 65};
+    private static final String[] AGE_LABELS = {"0-17", "18-24", "25-34", "35-44", "45-54", "55-64", "65+"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final long reconcileIntervalMillis;
+    private final LongAdder total = new LongAdder();
+    private final LongAdder ageSum = new LongAdder();
+    private final LongAdder[] ageBuckets = new LongAdder[AGE_BOUNDS.length];
+    private final Map<Long, LongAdder> days = new ConcurrentHashMap<>();
+    private final LongAdder corrections = new LongAdder();
+    private volatile Map<String, Long> lastDrift = Map.of();
+    private volatile LocalDateTime seededAt;
+    private volatile LocalDateTime lastReconciledAt;
+    private ScheduledExecutorService reconciler;
+
+    /**
+     * Plain copy of the aggregates; {@code days} is keyed by epoch day.
+     */
+    record Snapshot(long total, long ageSum, long[] ageBuckets, Map<Long, Long> days) {
+    }
+
+    public UserStatistics(DataSource dataSource,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${stats.scan-fetch-size:1000}") int fetchSize,
+                          @Value("${stats.reconcile-interval-ms:600000}") long reconcileIntervalMillis) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.reconcileIntervalMillis = reconcileIntervalMillis;
+        for (int i = 0; i < ageBuckets.length; i++) ageBuckets[i] = new LongAdder();
+    }
+
+    @PostConstruct
+    void start() {
+        Snapshot seed = scan();
+        total.add(seed.total());
+        ageSum.add(seed.ageSum());
+        for (int i = 0; i < ageBuckets.length; i++) ageBuckets[i].add(seed.ageBuckets()[i]);
+        seed.days().forEach((day, users) -> day(day).add(users));
+        seededAt = LocalDateTime.now();
+        logger.info("User statistics seeded with {} users", seed.total());
+
+        reconciler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-stats-reconciler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reconciler.scheduleWithFixedDelay(() -> {
+            try {
+                reconcile();
+            } catch (RuntimeException e) {
+                logger.error("User statistics reconciliation failed", e);
+            }
+        }, reconcileIntervalMillis, reconcileIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        reconciler.shutdownNow();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        switch (event.type()) {
+            case CREATED -> apply(event.user(), 1);
+            case DELETED -> apply(event.user(), -1);
+            case UPDATED -> {
+                if (event.previous() != null && !event.previous().getAge().equals(event.user().getAge())) {
+                    ageSum.add(event.user().getAge() - event.previous().getAge());
+                    ageBuckets[bucketOf(event.previous().getAge())].decrement();
+                    ageBuckets[bucketOf(event.user().getAge())].increment();
+                }
+            }
+        }
+    }
+
+    /**
+     * @param lastDays number of signup days to report, ending today
+     */
+    public UserStatsDto getStats(int lastDays) {
+        long users = total.sum();
+        Map<String, Long> histogram = new LinkedHashMap<>();
+        for (int i = 0; i < ageBuckets.length; i++) histogram.put(AGE_LABELS[i], ageBuckets[i].sum());
+
+        Map<LocalDate, Long> signups = new LinkedHashMap<>();
+        long today = LocalDate.now().toEpochDay();
+        for (long day = today - lastDays + 1; day <= today; day++) {
+            LongAdder count = days.get(day);
+            signups.put(LocalDate.ofEpochDay(day), count == null ? 0 : count.sum());
+        }
+
+        return UserStatsDto.builder()
+                .total(users)
+                .averageAge(users == 0 ? 0 : (double) ageSum.sum() / users)
+                .ageBuckets(histogram)
+                .dailySignups(signups)
+                .seededAt(seededAt)
+                .lastReconciledAt(lastReconciledAt)
+                .lastDrift(lastDrift)
+                .corrections(corrections.sum())
+                .build();
+    }
+
+    /**
+     * Scans {@code users}, returns the cells that differ from the in-memory aggregates (database minus memory)
+     * and corrects those that showed the same drift in the previous run.
+     */
+    public synchronized Map<String, Long> reconcile() {
+        Snapshot database = scan();
+        Snapshot memory = snapshot();
+        Map<String, Long> drift = new LinkedHashMap<>();
+        putDrift(drift, "total", database.total() - memory.total());
+        putDrift(drift, "ageSum", database.ageSum() - memory.ageSum());
+        for (int i = 0; i < AGE_LABELS.length; i++) {
+            putDrift(drift, "age:" + AGE_LABELS[i], database.ageBuckets()[i] - memory.ageBuckets()[i]);
+        }
+        Map<Long, Long> allDays = new HashMap<>(memory.days());
+        allDays.replaceAll((day, users) -> 0L);
+        allDays.putAll(database.days());
+        allDays.forEach((day, users) ->
+                putDrift(drift, "day:" + LocalDate.ofEpochDay(day), users - memory.days().getOrDefault(day, 0L)));
+
+        Map<String, Long> previous = lastDrift;
+        drift.forEach((cell, delta) -> {
+            if (delta.equals(previous.get(cell))) correct(cell, delta);
+        });
+        if (!drift.isEmpty()) logger.warn("User statistics drift from database: {}", drift);
+        lastDrift = Map.copyOf(drift);
+        lastReconciledAt = LocalDateTime.now();
+        return drift;
+    }
+
+    Snapshot snapshot() {
+        long[] buckets = new long[ageBuckets.length];
+        for (int i = 0; i < buckets.length; i++) buckets[i] = ageBuckets[i].sum();
+        Map<Long, Long> dayCounts = new HashMap<>();
+        days.forEach((day, users) -> dayCounts.put(day, users.sum()));
+        return new Snapshot(total.sum(), ageSum.sum(), buckets, dayCounts);
+    }
+
+    /**
+     * Streams {@code age, created_at} of every user not soft-deleted; the read-only transaction lets the driver use a cursor.
+     */
+    private Snapshot scan() {
+        long[] counts = new long[2];
+        long[] buckets = new long[ageBuckets.length];
+        Map<Long, Long> dayCounts = new HashMap<>();
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(
+                "SELECT age, created_at FROM users WHERE deleted_at IS NULL", resultSet -> {
+                    int age = resultSet.getInt(1);
+                    Timestamp createdAt = resultSet.getTimestamp(2);
+                    counts[0]++;
+                    counts[1] += age;
+                    buckets[bucketOf(age)]++;
+                    if (createdAt != null) {
+                        dayCounts.merge(createdAt.toLocalDateTime().toLocalDate().toEpochDay(), 1L, Long::sum);
+                    }
+                }));
+        return new Snapshot(counts[0], counts[1], buckets, dayCounts);
+    }
+
+    private void apply(UserDto user, int sign) {
+        total.add(sign);
+        ageSum.add((long) sign * user.getAge());
+        ageBuckets[bucketOf(user.getAge())].add(sign);
+        if (user.getCreatedAt() != null) day(user.getCreatedAt().toLocalDate().toEpochDay()).add(sign);
+    }
+
+    private void correct(String cell, long delta) {
+        if (cell.equals("total")) {
+            total.add(delta);
+        } else if (cell.equals("ageSum")) {
+            ageSum.add(delta);
+        } else if (cell.startsWith("age:")) {
+            String label = cell.substring("age:".length());
+            for (int i = 0; i < AGE_LABELS.length; i++) {
+                if (AGE_LABELS[i].equals(label)) ageBuckets[i].add(delta);
+            }
+        } else if (cell.startsWith("day:")) {
+            day(LocalDate.parse(cell.substring("day:".length())).toEpochDay()).add(delta);
+        }
+        corrections.increment();
+        logger.warn("Corrected user statistics cell {} by {}", cell, delta);
+    }
+
+    private LongAdder day(long epochDay) {
+        return days.computeIfAbsent(epochDay, day -> new LongAdder());
+    }
+
+    private static void putDrift(Map<String, Long> drift, String cell, long delta) {
+        if (delta != 0) drift.put(cell, delta);
+    }
+
+    static int bucketOf(int age) {
+        for (int i = AGE_BOUNDS.length - 1; i > 0; i--) {
+            if (age >= AGE_BOUNDS[i]) return i;
+        }
+        return 0;
+    }
+}
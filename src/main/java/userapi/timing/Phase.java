@@ -0,0 +1,22 @@
+package userapi.timing;
+
+/**
+ * Request phases reported in the {@code Server-Timing} header, in header order.
+ */
+public enum Phase {
+    EXISTS("exists"),
+    INSERT("insert"),
+    MAPPER("mapper"),
+    HATEOAS("hateoas"),
+    KAFKA("kafka");
+
+    private final String metric;
+
+    Phase(String metric) {
+        this.metric = metric;
+    }
+
+    public String metric() {
+        return metric;
+    }
+}
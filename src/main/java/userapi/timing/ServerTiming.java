@@ -0,0 +1,91 @@
+package userapi.timing;
+
+/**
+ * Phase durations of the current request, kept per thread in reused arrays so recording allocates nothing.
+ * {@link ServerTimingFilter} activates the recorder for a request; outside a timed request {@link #start()}
+ * returns 0 and {@link #stop} does nothing.
+ * <pre>{@code
+ * long start = ServerTiming.start();
+ * boolean exists = userRepository.existsByEmail(email);
+ * ServerTiming.stop(Phase.EXISTS, start);
+ * }</pre>
+ */
+public final class ServerTiming {
+    public static final String HEADER = "Server-Timing";
+    private static final Phase[] PHASES = Phase.values();
+    private static final ThreadLocal<Recorder> RECORDER = ThreadLocal.withInitial(Recorder::new);
+
+    static final class Recorder {
+        private final long[] nanos = new long[PHASES.length];
+        private final int[] counts = new int[PHASES.length];
+        private long startNanos;
+        private boolean active;
+
+        long startNanos() {
+            return startNanos;
+        }
+    }
+
+    private ServerTiming() {
+    }
+
+    public static long start() {
+        return RECORDER.get().active ? System.nanoTime() : 0;
+    }
+
+    public static void stop(Phase phase, long start) {
+        if (start == 0) return;
+        Recorder recorder = RECORDER.get();
+        if (!recorder.active) return;
+        recorder.nanos[phase.ordinal()] += System.nanoTime() - start;
+        recorder.counts[phase.ordinal()]++;
+    }
+
+    public static boolean isActive() {
+        return RECORDER.get().active;
+    }
+
+    /**
+     * {@code controller} is the time from the start of the request until now; the phases are nested in it.
+     * Phases that did not run are left out.
+     */
+    public static String header() {
+        Recorder recorder = RECORDER.get();
+        StringBuilder header = new StringBuilder(160);
+        header.append("controller;dur=");
+        appendMillis(header, System.nanoTime() - recorder.startNanos);
+        for (Phase phase : PHASES) {
+            if (recorder.counts[phase.ordinal()] == 0) continue;
+            header.append(", ").append(phase.metric()).append(";dur=");
+            appendMillis(header, recorder.nanos[phase.ordinal()]);
+        }
+        return header.toString();
+    }
+
+    static Recorder begin() {
+        Recorder recorder = RECORDER.get();
+        for (int i = 0; i < PHASES.length; i++) {
+            recorder.nanos[i] = 0;
+            recorder.counts[i] = 0;
+        }
+        recorder.startNanos = System.nanoTime();
+        recorder.active = true;
+        return recorder;
+    }
+
+    static void end() {
+        RECORDER.get().active = false;
+    }
+
+    /**
+     * Milliseconds with three decimals, without going through {@code String.format}.
+     */
+    static void appendMillis(StringBuilder target, long nanos) {
+        long micros = Math.max(0, nanos) / 1_000;
+        long fraction = micros % 1_000;
+        target.append(micros / 1_000).append('.');
+        if (fraction < 100) target.append('0');
+        if (fraction < 10) target.append('0');
+        target.append(fraction);
+    }
+}
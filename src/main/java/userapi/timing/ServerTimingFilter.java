@@ -0,0 +1,88 @@
+package userapi.timing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import userapi.dto.ServerTimingSettingsDto;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Activates {@link ServerTiming} for {@code /api/users} requests. Requests slower than
+ * {@code server-timing.slow-threshold-ms} are logged as one key=value line for a
+ * {@code server-timing.slow-log-sample-rate} fraction of them. All settings can be changed at runtime.
+ */
+@Component
+public class ServerTimingFilter extends OncePerRequestFilter {
+    private static final Logger logger = LoggerFactory.getLogger(ServerTimingFilter.class);
+
+    private final LongAdder timed = new LongAdder();
+    private final LongAdder slow = new LongAdder();
+    private final LongAdder logged = new LongAdder();
+    private volatile boolean enabled;
+    private volatile long slowThresholdNanos;
+    private volatile double slowLogSampleRate;
+
+    public ServerTimingFilter(@Value("${server-timing.enabled:true}") boolean enabled,
+                              @Value("${server-timing.slow-threshold-ms:500}") long slowThresholdMillis,
+                              @Value("${server-timing.slow-log-sample-rate:1.0}") double slowLogSampleRate) {
+        this.enabled = enabled;
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMillis);
+        this.slowLogSampleRate = slowLogSampleRate;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !request.getRequestURI().startsWith("/api/users", request.getContextPath().length());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ServerTiming.Recorder recorder = ServerTiming.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            long elapsed = System.nanoTime() - recorder.startNanos();
+            timed.increment();
+            if (elapsed >= slowThresholdNanos) {
+                slow.increment();
+                if (ThreadLocalRandom.current().nextDouble() < slowLogSampleRate) {
+                    logged.increment();
+                    StringBuilder total = new StringBuilder(12);
+                    ServerTiming.appendMillis(total, elapsed);
+                    logger.warn("Slow request method={} path={} status={} total_ms={} timing=\"{}\"",
+                            request.getMethod(), request.getRequestURI(), response.getStatus(), total,
+                            ServerTiming.header());
+                }
+            }
+            ServerTiming.end();
+        }
+    }
+
+    public ServerTimingSettingsDto getSettings() {
+        return ServerTimingSettingsDto.builder()
+                .enabled(enabled)
+                .slowThresholdMs(TimeUnit.NANOSECONDS.toMillis(slowThresholdNanos))
+                .slowLogSampleRate(slowLogSampleRate)
+                .timedRequests(timed.sum())
+                .slowRequests(slow.sum())
+                .loggedRequests(logged.sum())
+                .build();
+    }
+
+    public void update(Boolean enabled, Long slowThresholdMillis, Double slowLogSampleRate) {
+        if (enabled != null) this.enabled = enabled;
+        if (slowThresholdMillis != null) this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMillis);
+        if (slowLogSampleRate != null) this.slowLogSampleRate = slowLogSampleRate;
+    }
+}
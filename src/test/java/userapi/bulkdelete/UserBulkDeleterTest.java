@@ -0,0 +1,182 @@
+package userapi.bulkdelete;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import userapi.config.InMemoryKafkaConfig;
+import userapi.dto.BulkDeleteCriteriaDto;
+import userapi.dto.BulkDeleteJobDto;
+import userapi.dto.UserEvent;
+import userapi.handler.exception.UserNotFoundException;
+import userapi.service.UserService;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "bulk-delete.chunk-size=500",
+        "bulk-delete.max-rows-per-second=1000000"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles({"test", "embedded"})
+@Import(InMemoryKafkaConfig.class)
+public class UserBulkDeleterTest {
+    private static final Logger logger = LoggerFactory.getLogger(UserBulkDeleterTest.class);
+    private static final LocalDateTime BASE = LocalDateTime.of(2020, 1, 1, 0, 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private UserBulkDeleter userBulkDeleter;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private MockProducer<String, UserEvent> mockProducer;
+
+    @Test
+    void bulkDelete_EmailDomain_DeletesInChunksWithOneEventPerUser() throws Exception {
+        String domain = UUID.randomUUID() + ".test";
+        String otherDomain = UUID.randomUUID() + ".test";
+        int rows = 2_000;
+        Set<Long> ids = insert(domain, rows, BASE);
+        Set<Long> kept = insert(otherDomain, 10, BASE);
+
+        String body = mockMvc.perform(post("/api/admin/users/bulk-delete")
+                        .param("dryRun", "false")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("emailDomain", "@" + domain.toUpperCase()))))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getContentAsString();
+        long jobId = objectMapper.readTree(body).get("id").asLong();
+
+        long start = System.nanoTime();
+        JsonNode job = awaitJob(jobId);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        logger.info("Bulk deleted {} rows in {} chunks, {} rows/s", rows, job.get("chunks").asLong(),
+                String.format("%.0f", rows / seconds));
+
+        assertEquals("COMPLETED", job.get("status").asText());
+        assertEquals(rows, job.get("matched").asLong());
+        assertEquals(rows, job.get("deleted").asLong());
+        assertEquals(rows / 500, job.get("chunks").asLong());
+        assertEquals(0L, countByDomain(domain));
+        assertEquals(10L, countByDomain(otherDomain));
+        assertEquals(rows, deletedEvents(ids));
+        assertEquals(0, deletedEvents(kept));
+        assertThrows(UserNotFoundException.class, () -> userService.getUserById(ids.iterator().next()));
+    }
+
+    @Test
+    void bulkDelete_DryRun_CountsWithoutDeleting() throws Exception {
+        String domain = UUID.randomUUID() + ".test";
+        insert(domain, 30, BASE);
+        insert(domain, 20, BASE.plusYears(1));
+
+        String body = mockMvc.perform(post("/api/admin/users/bulk-delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of(
+                                "emailDomain", domain,
+                                "createdTo", BASE.plusMonths(6).toString()))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        JsonNode result = objectMapper.readTree(body);
+        assertTrue(result.get("dryRun").asBoolean());
+        assertEquals(30, result.get("matched").asLong());
+        assertEquals(50L, countByDomain(domain));
+    }
+
+    @Test
+    void submit_IdsAndCreatedRange_DeletesIntersectionOnly() throws Exception {
+        String domain = UUID.randomUUID() + ".test";
+        List<Long> early = new ArrayList<>(insert(domain, 5, BASE));
+        List<Long> late = new ArrayList<>(insert(domain, 5, BASE.plusDays(10)));
+        List<Long> requested = new ArrayList<>(early.subList(0, 3));
+        requested.addAll(late);
+
+        BulkDeleteJobDto job = userBulkDeleter.submit(BulkDeleteCriteriaDto.builder()
+                .ids(requested)
+                .createdFrom(BASE.minusDays(1))
+                .createdTo(BASE.plusDays(1))
+                .build());
+
+        assertEquals("COMPLETED", awaitJob(job.getId()).get("status").asText());
+        assertEquals(3, deletedEvents(Set.copyOf(requested)));
+        assertEquals(7L, countByDomain(domain));
+    }
+
+    @Test
+    void bulkDelete_NoCriteria_BadRequest() throws Exception {
+        mockMvc.perform(post("/api/admin/users/bulk-delete")
+                        .param("dryRun", "false")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"emailDomain\": \" \", \"ids\": []}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private JsonNode awaitJob(long jobId) throws Exception {
+        long deadline = System.nanoTime() + 30_000_000_000L;
+        while (true) {
+            String body = mockMvc.perform(get("/api/admin/users/bulk-delete/" + jobId)
+                            .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode job = objectMapper.readTree(body);
+            String status = job.get("status").asText();
+            if (status.equals("COMPLETED") || status.equals("FAILED")) return job;
+            assertTrue(System.nanoTime() < deadline, "Bulk delete " + jobId + " still " + status);
+            Thread.sleep(20);
+        }
+    }
+
+    private Set<Long> insert(String domain, int rows, LocalDateTime createdAt) {
+        Timestamp timestamp = Timestamp.valueOf(createdAt);
+        String prefix = UUID.randomUUID().toString();
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            batch.add(new Object[]{"bulk", prefix + "-" + i + "@" + domain, 30, timestamp, timestamp});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (name, email, age, created_at, updated_at) VALUES (?, ?, ?, ?, ?)",
+                batch);
+        return jdbcTemplate.queryForList("SELECT id FROM users WHERE email LIKE ?", Long.class, prefix + "-%")
+                .stream().collect(Collectors.toSet());
+    }
+
+    private long countByDomain(String domain) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE email LIKE ?", Long.class, "%@" + domain);
+    }
+
+    private long deletedEvents(Set<Long> ids) {
+        return mockProducer.history().stream()
+                .filter(record -> "USER_DELETED".equals(record.value().getEvent()))
+                .filter(record -> ids.contains(record.value().getId()))
+                .count();
+    }
+}
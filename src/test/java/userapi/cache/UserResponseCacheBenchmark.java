@@ -0,0 +1,73 @@
+package userapi.cache;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import userapi.config.InMemoryKafkaConfig;
+
+import java.lang.management.ManagementFactory;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Per-request CPU time and allocation of {@code GET /api/users/{id}} with and without {@link UserResponseCache}.
+ * MockMvc dispatches on the calling thread, so thread CPU time and allocated bytes cover the whole request.
+ * Not part of the default test run: {@code mvn test -Dtest=UserResponseCacheBenchmark}.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles({"test", "embedded"})
+@Import(InMemoryKafkaConfig.class)
+public class UserResponseCacheBenchmark {
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 50_000;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserResponseCache userResponseCache;
+
+    @Test
+    void getUserById_CpuAndAllocationPerRequest() throws Exception {
+        String body = mockMvc.perform(post("/api/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"bench\",\"email\":\"bench@test.com\",\"age\":20}"))
+                .andReturn().getResponse().getContentAsString();
+        long id = ((Number) JsonPath.read(body, "$.id")).longValue();
+
+        userResponseCache.setEnabled(false);
+        measure("without cache", id);
+        userResponseCache.setEnabled(true);
+        measure("with cache", id);
+        System.out.println(userResponseCache.getStats());
+    }
+
+    private void measure(String label, long id) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        for (int i = 0; i < WARMUP; i++) request(id);
+
+        long cpuStart = threads.getCurrentThreadCpuTime();
+        long allocatedStart = threads.getThreadAllocatedBytes(thread);
+        long wallStart = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) request(id);
+        long wall = System.nanoTime() - wallStart;
+        long cpu = threads.getCurrentThreadCpuTime() - cpuStart;
+        long allocated = threads.getThreadAllocatedBytes(thread) - allocatedStart;
+
+        System.out.printf("%-14s cpu %8.1f us/req, wall %8.1f us/req, allocated %9d bytes/req%n",
+                label, cpu / 1e3 / ITERATIONS, wall / 1e3 / ITERATIONS, allocated / ITERATIONS);
+    }
+
+    private void request(long id) throws Exception {
+        mockMvc.perform(get("/api/users/{id}", id)).andExpect(status().isOk());
+    }
+}
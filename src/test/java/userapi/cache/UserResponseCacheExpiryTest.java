@@ -0,0 +1,51 @@
+package userapi.cache;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import userapi.config.InMemoryKafkaConfig;
+import userapi.projection.UserProjection;
+
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "response-cache.ttl-ms=500")
+@AutoConfigureMockMvc
+@ActiveProfiles({"test", "embedded"})
+@Import(InMemoryKafkaConfig.class)
+public class UserResponseCacheExpiryTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @MockitoBean
+    private UserProjection userProjection;
+
+    @Test
+    void getUserById_ChangedBehindTheCache_FreshAfterTtl() throws Exception {
+        String body = mockMvc.perform(post("/api/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"test\",\"email\":\"" + UUID.randomUUID() + "@test.com\",\"age\":20}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long userId = ((Number) JsonPath.read(body, "$.id")).longValue();
+        mockMvc.perform(get("/api/users/{id}", userId)).andExpect(status().isOk());
+
+        jdbcTemplate.update("UPDATE users SET name = ? WHERE id = ?", "changed", userId);
+        Thread.sleep(600);
+
+        mockMvc.perform(get("/api/users/{id}", userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("changed"));
+    }
+}
@@ -0,0 +1,145 @@
+package userapi.cache;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import userapi.config.InMemoryKafkaConfig;
+import userapi.dto.UserDto;
+import userapi.projection.UserProjection;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles({"test", "embedded"})
+@Import(InMemoryKafkaConfig.class)
+public class UserResponseCacheTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserResponseCache userResponseCache;
+    @MockitoBean
+    private UserProjection userProjection;
+    private Long userId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        userResponseCache.setEnabled(true);
+        String email = UUID.randomUUID() + "@test.com";
+        String body = mockMvc.perform(post("/api/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"test\",\"email\":\"" + email + "\",\"age\":20}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        userId = ((Number) JsonPath.read(body, "$.id")).longValue();
+    }
+
+    @Test
+    void getUserById_SecondRequestServedFromCache() throws Exception {
+        String first = mockMvc.perform(get("/api/users/{id}", userId))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/hal+json"))
+                .andReturn().getResponse().getContentAsString();
+        long hits = userResponseCache.getStats().getHits();
+
+        mockMvc.perform(get("/api/users/{id}", userId))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/hal+json"))
+                .andExpect(content().string(first));
+
+        assertEquals(hits + 1, userResponseCache.getStats().getHits());
+        assertTrue(userResponseCache.getStats().getBytes() > 0);
+    }
+
+    @Test
+    void getUserById_CachedForOneHost_LinksPointToRequestingHost() throws Exception {
+        mockMvc.perform(get("http://first.example/api/users/{id}", userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._links.self.href").value("http://first.example/api/users/" + userId));
+        long hits = userResponseCache.getStats().getHits();
+
+        mockMvc.perform(get("https://second.example:8443/api/users/{id}", userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._links.self.href").value("https://second.example:8443/api/users/" + userId))
+                .andExpect(jsonPath("$._links.delete.href")
+                        .value("https://second.example:8443/api/users/" + userId + "/delete"));
+
+        assertEquals(hits + 1, userResponseCache.getStats().getHits());
+    }
+
+    @Test
+    void updateUser_InvalidatesCachedResponse() throws Exception {
+        mockMvc.perform(get("/api/users/{id}", userId)).andExpect(status().isOk());
+
+        mockMvc.perform(put("/api/users/{id}/update", userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"admin\",\"email\":\"" + UUID.randomUUID() + "@admin.com\",\"age\":30}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/users/{id}", userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("admin"));
+    }
+
+    @Test
+    void deleteUser_InvalidatesCachedResponse() throws Exception {
+        mockMvc.perform(get("/api/users/{id}", userId)).andExpect(status().isOk());
+
+        mockMvc.perform(delete("/api/users/{id}/delete", userId)).andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/users/{id}", userId)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void put_StaleStampIsNotCached() throws Exception {
+        long stamp = userResponseCache.stamp(userId);
+        userResponseCache.invalidate(userId);
+
+        mockMvc.perform(get("/api/users/{id}", userId)).andExpect(status().isOk());
+        userResponseCache.invalidate(userId);
+        int entries = userResponseCache.getStats().getEntries();
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        try {
+            userResponseCache.put(EntityModel.of(UserDto.builder().id(userId).name("stale").build()), stamp);
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+
+        assertEquals(entries, userResponseCache.getStats().getEntries());
+        assertNull(userResponseCache.get(userId));
+    }
+
+    @Test
+    void getUserById_ServedFromProjection_IsNotCached() throws Exception {
+        when(userProjection.find(userId))
+                .thenReturn(Optional.of(UserDto.builder().id(userId).name("projected").email("old@test.com").build()));
+        mockMvc.perform(get("/api/users/{id}", userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("projected"));
+        assertNull(userResponseCache.get(userId));
+
+        when(userProjection.find(userId)).thenReturn(Optional.empty());
+        mockMvc.perform(get("/api/users/{id}", userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("test"));
+    }
+}
@@ -0,0 +1,119 @@
+package userapi.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import userapi.dto.UserDto;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Payload size and encode/decode time of HAL JSON, CBOR and Smile for a single user and a 100-user collection,
+ * using the application's own message converters.
+ * Not part of the default test run: {@code mvn test -Dtest=BinaryFormatsBenchmark}.
+ */
+@SpringBootTest
+@ActiveProfiles({"test", "embedded"})
+@Import(InMemoryKafkaConfig.class)
+public class BinaryFormatsBenchmark {
+    private static final int ITERATIONS = 50_000;
+    private static final int COLLECTION_SIZE = 100;
+
+    @Autowired
+    private RequestMappingHandlerAdapter handlerAdapter;
+
+    @Test
+    void encodeDecode_SizeAndTimeByFormat() throws Exception {
+        EntityModel<UserDto> single = model(1);
+        List<EntityModel<UserDto>> users = new ArrayList<>();
+        for (int i = 1; i <= COLLECTION_SIZE; i++) users.add(model(i));
+        CollectionModel<EntityModel<UserDto>> collection =
+                CollectionModel.of(users, Link.of("http://localhost:8080/api/users?ids=1,2,3"));
+
+        for (MediaType mediaType : List.of(MediaTypes.HAL_JSON, MediaType.APPLICATION_CBOR,
+                BinaryFormatsConfig.APPLICATION_SMILE)) {
+            measure(mediaType, "single", single, UserDto.class, ITERATIONS);
+            measure(mediaType, "collection", collection, Object.class, ITERATIONS / COLLECTION_SIZE);
+        }
+    }
+
+    private void measure(MediaType mediaType, String label, Object model, Class<?> readType, int iterations)
+            throws Exception {
+        HttpMessageConverter<Object> converter = converter(model.getClass(), mediaType);
+        ObjectMapper mapper = ((AbstractJackson2HttpMessageConverter) converter).getObjectMapper();
+        byte[] payload = encode(converter, model, mediaType);
+
+        for (int i = 0; i < iterations; i++) {
+            encode(converter, model, mediaType);
+            mapper.readValue(payload, readType);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) encode(converter, model, mediaType);
+        long encode = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) mapper.readValue(payload, readType);
+        long decode = System.nanoTime() - start;
+
+        System.out.printf("%-28s %-10s %7d bytes  encode %8.2f us  decode %8.2f us%n", mediaType, label,
+                payload.length, encode / 1e3 / iterations, decode / 1e3 / iterations);
+    }
+
+    @SuppressWarnings("unchecked")
+    private HttpMessageConverter<Object> converter(Class<?> type, MediaType mediaType) {
+        return (HttpMessageConverter<Object>) handlerAdapter.getMessageConverters().stream()
+                .filter(candidate -> candidate.canWrite(type, mediaType))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static byte[] encode(HttpMessageConverter<Object> converter, Object model, MediaType mediaType)
+            throws Exception {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(512);
+        HttpHeaders headers = new HttpHeaders();
+        converter.write(model, mediaType, new HttpOutputMessage() {
+            @Override
+            public OutputStream getBody() {
+                return body;
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return headers;
+            }
+        });
+        return body.toByteArray();
+    }
+
+    private static EntityModel<UserDto> model(long id) {
+        LocalDateTime now = LocalDateTime.of(2026, 10, 19, 12, 30, 15, 123_456_000);
+        UserDto user = UserDto.builder()
+                .id(id)
+                .name("User " + id)
+                .email("user" + id + "@example.com")
+                .age(30)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+        return EntityModel.of(user,
+                Link.of("http://localhost:8080/api/users/" + id),
+                Link.of("http://localhost:8080/api/users/" + id + "/update", "update"),
+                Link.of("http://localhost:8080/api/users/" + id + "/delete", "delete"));
+    }
+}
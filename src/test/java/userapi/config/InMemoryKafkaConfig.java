@@ -0,0 +1,33 @@
+package userapi.config;
+
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.mock.MockProducerFactory;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import userapi.dto.UserEvent;
+
+import java.time.Duration;
+
+@TestConfiguration
+public class InMemoryKafkaConfig {
+
+    @Bean
+    public MockProducer<String, UserEvent> mockProducer() {
+        return new MockProducer<>(true, new StringSerializer(), new JsonSerializer<>()) {
+            @Override
+            public void close(Duration timeout) {
+                // KafkaTemplate closes non-transactional producers after each send; keep the shared one open
+            }
+        };
+    }
+
+    @Bean
+    @Primary
+    public KafkaTemplate<String, UserEvent> inMemoryKafkaTemplate(MockProducer<String, UserEvent> mockProducer) {
+        return new KafkaTemplate<>(new MockProducerFactory<>(() -> mockProducer));
+    }
+}
@@ -0,0 +1,28 @@
+package userapi.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShardingConfigTest {
+
+    @Test
+    void requireNoUnshardedUsers_UsersTableHasRows_RefusesToStart() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(
+                new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1"));
+        assertDoesNotThrow(() -> ShardingConfig.requireNoUnshardedUsers(jdbcTemplate));
+
+        jdbcTemplate.execute("CREATE TABLE users (id BIGINT PRIMARY KEY, email VARCHAR(255))");
+        assertDoesNotThrow(() -> ShardingConfig.requireNoUnshardedUsers(jdbcTemplate));
+
+        jdbcTemplate.update("INSERT INTO users (id, email) VALUES (1, 'legacy@test.com')");
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> ShardingConfig.requireNoUnshardedUsers(jdbcTemplate));
+        assertTrue(e.getMessage().contains("1 users"));
+        jdbcTemplate.execute("SHUTDOWN");
+    }
+}
@@ -0,0 +1,185 @@
+package userapi.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import userapi.bulkhead.Bulkhead;
+import userapi.config.InMemoryKafkaConfig;
+import userapi.dto.UserDto;
+import userapi.producer.KafkaProducer;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Floods the write bulkhead with creates that block on a slow Kafka send and checks that reads through the
+ * read bulkhead keep their latency while excess writes are rejected immediately.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "bulkhead.write.threads=2",
+        "bulkhead.write.queue-capacity=4",
+        "bulkhead.write.timeout-ms=5000",
+        "bulkhead.read.threads=4",
+        "response-cache.enabled=false"
+})
+@ActiveProfiles({"test", "embedded"})
+@Import(InMemoryKafkaConfig.class)
+public class AsyncUserControllerTest {
+    private static final Logger logger = LoggerFactory.getLogger(AsyncUserControllerTest.class);
+    private static final long SLOW_SEND_MILLIS = 300;
+    private static final int WRITERS = 12;
+    private static final long RETRY_AFTER_REJECTION_MILLIS = 50;
+
+    @LocalServerPort
+    private int port;
+    @MockitoSpyBean
+    private KafkaProducer kafkaProducer;
+    @Autowired
+    @Qualifier("writeBulkhead")
+    private Bulkhead writeBulkhead;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final AtomicBoolean slowKafka = new AtomicBoolean();
+    private final List<Long> userIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        doAnswer(invocation -> {
+            if (slowKafka.get()) Thread.sleep(SLOW_SEND_MILLIS);
+            return invocation.callRealMethod();
+        }).when(kafkaProducer).sendUser(anyString(), any(UserDto.class));
+        for (int i = 0; i < 10; i++) {
+            HttpResponse<String> response = create();
+            assertEquals(201, response.statusCode());
+            userIds.add(((Number) JsonPath.read(response.body(), "$.id")).longValue());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        slowKafka.set(false);
+    }
+
+    @Test
+    void getUserById_WriteStorm_ReadLatencyIsolated() throws Exception {
+        slowKafka.set(true);
+        AtomicBoolean storming = new AtomicBoolean(true);
+        AtomicLong created = new AtomicLong();
+        AtomicLong rejected = new AtomicLong();
+        Histogram rejectionMicros = new Histogram(TimeUnit.SECONDS.toMicros(60), 3);
+        ExecutorService writers = Executors.newFixedThreadPool(WRITERS);
+        List<Future<?>> storm = new ArrayList<>();
+        for (int i = 0; i < WRITERS; i++) {
+            storm.add(writers.submit(() -> {
+                while (storming.get()) {
+                    long start = System.nanoTime();
+                    HttpResponse<String> response = create();
+                    if (response.statusCode() == 201) {
+                        created.incrementAndGet();
+                    } else if (response.statusCode() == 503) {
+                        rejected.incrementAndGet();
+                        synchronized (rejectionMicros) {
+                            rejectionMicros.recordValue((System.nanoTime() - start) / 1000);
+                        }
+                        Thread.sleep(RETRY_AFTER_REJECTION_MILLIS);
+                    } else {
+                        fail("Unexpected status " + response.statusCode());
+                    }
+                }
+                return null;
+            }));
+        }
+
+        Thread.sleep(500);
+        Histogram readMicros = new Histogram(TimeUnit.SECONDS.toMicros(60), 3);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(3);
+        for (int i = 0; System.nanoTime() < deadline; i++) {
+            long start = System.nanoTime();
+            HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/" + userIds.get(i % userIds.size()))).GET());
+            readMicros.recordValue((System.nanoTime() - start) / 1000);
+            assertEquals(200, response.statusCode());
+        }
+        int writeQueueDepth = writeBulkhead.getStats().getQueueDepth();
+
+        storming.set(false);
+        for (Future<?> writer : storm) writer.get(30, TimeUnit.SECONDS);
+        writers.shutdown();
+
+        double readP99 = readMicros.getValueAtPercentile(99) / 1000.0;
+        double rejectionP50 = rejectionMicros.getValueAtPercentile(50) / 1000.0;
+        logger.info("Reads: {} p50={}ms p99={}ms; writes created={} rejected={} (rejection p50={}ms)",
+                readMicros.getTotalCount(), readMicros.getValueAtPercentile(50) / 1000.0, readP99,
+                created.get(), rejected.get(), rejectionP50);
+
+        assertTrue(readMicros.getTotalCount() > 0);
+        assertTrue(readP99 < SLOW_SEND_MILLIS, "Read p99 " + readP99 + "ms is not isolated from slow writes");
+        assertTrue(created.get() > 0);
+        assertTrue(rejected.get() > 0, "Write bulkhead never filled up");
+        assertTrue(rejectionP50 < SLOW_SEND_MILLIS, "Rejections are not fast: p50 " + rejectionP50 + "ms");
+        assertTrue(writeQueueDepth <= 4);
+        assertTrue(writeBulkhead.getStats().getRejected() >= rejected.get());
+    }
+
+    @Test
+    void getUserById_UnknownId_ReturnsNotFound() throws Exception {
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/" + Long.MAX_VALUE)).GET());
+
+        assertEquals(404, response.statusCode());
+        assertEquals("NOT_FOUND", JsonPath.read(response.body(), "$.error"));
+    }
+
+    @Test
+    void getUserById_LinksPointToRequestHost() throws Exception {
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/" + userIds.get(0))).GET());
+
+        assertEquals(200, response.statusCode());
+        assertEquals("http://localhost:" + port + "/api/users/" + userIds.get(0),
+                JsonPath.read(response.body(), "$._links.self.href"));
+    }
+
+    private HttpResponse<String> create() throws Exception {
+        String body = "{\"name\":\"test\",\"email\":\"" + UUID.randomUUID() + "@test.com\",\"age\":20}";
+        return send(HttpRequest.newBuilder(uri(""))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body)));
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws Exception {
+        return client.send(request.timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + "/api/async/users" + path);
+    }
+}
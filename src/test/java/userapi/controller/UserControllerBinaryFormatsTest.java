@@ -0,0 +1,110 @@
+package userapi.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import userapi.config.BinaryFormatsConfig;
+import userapi.config.InMemoryKafkaConfig;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles({"test", "embedded"})
+@Import(InMemoryKafkaConfig.class)
+public class UserControllerBinaryFormatsTest {
+    private static final ObjectMapper CBOR = new CBORMapper();
+    private static final ObjectMapper SMILE = new SmileMapper();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void createUser_Cbor_RoundTripsWithLinks() throws Exception {
+        String email = UUID.randomUUID() + "@test.com";
+        byte[] body = mockMvc.perform(post("/api/users")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(CBOR.writeValueAsBytes(Map.of("name", "test", "email", email, "age", 20))))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode user = CBOR.readTree(body);
+        assertEquals(email, user.get("email").asText());
+        assertTrue(user.get("id").asLong() > 0);
+        assertTrue(user.at("/_links/self/href").asText().endsWith("/api/users/" + user.get("id").asLong()));
+        assertTrue(user.get("createdAt").isTextual());
+    }
+
+    @Test
+    void getUserById_SmileAfterJsonWasCached_ReturnsSmile() throws Exception {
+        long id = createUser();
+        mockMvc.perform(get("/api/users/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaTypes.HAL_JSON));
+        mockMvc.perform(get("/api/users/{id}", id))
+                .andExpect(content().contentTypeCompatibleWith(MediaTypes.HAL_JSON));
+
+        byte[] body = mockMvc.perform(get("/api/users/{id}", id)
+                        .header(HttpHeaders.ACCEPT, BinaryFormatsConfig.APPLICATION_SMILE + ", */*"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(BinaryFormatsConfig.APPLICATION_SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertEquals(id, SMILE.readTree(body).get("id").asLong());
+    }
+
+    @Test
+    void getUsersByIds_Cbor_ReturnsEmbeddedCollection() throws Exception {
+        long first = createUser();
+        long second = createUser();
+        byte[] body = mockMvc.perform(get("/api/users").param("ids", first + "," + second)
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode embedded = CBOR.readTree(body).get("_embedded").elements().next();
+        assertEquals(2, embedded.size());
+        assertEquals(first, embedded.get(0).get("id").asLong());
+    }
+
+    @Test
+    void getUserById_NotFoundInCbor_ReturnsCborError() throws Exception {
+        byte[] body = mockMvc.perform(get("/api/users/{id}", Long.MAX_VALUE).accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode error = CBOR.readTree(body);
+        assertEquals(404, error.get("status").asInt());
+        assertEquals("NOT_FOUND", error.get("error").asText());
+    }
+
+    private long createUser() throws Exception {
+        String body = mockMvc.perform(post("/api/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"test\",\"email\":\"" + UUID.randomUUID() + "@test.com\",\"age\":20}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return new ObjectMapper().readTree(body).get("id").asLong();
+    }
+}
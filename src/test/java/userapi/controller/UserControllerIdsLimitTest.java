@@ -0,0 +1,39 @@
+package userapi.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import userapi.config.InMemoryKafkaConfig;
+
+import java.util.Collections;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles({"test", "embedded"})
+@Import(InMemoryKafkaConfig.class)
+public class UserControllerIdsLimitTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void getUsersByIds_AtLimit_Ok() throws Exception {
+        mockMvc.perform(get("/api/users").param("ids", String.join(",", Collections.nCopies(1000, "-1"))))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getUsersByIds_TooManyIds_BadRequest() throws Exception {
+        mockMvc.perform(get("/api/users").param("ids", String.join(",", Collections.nCopies(1001, "-1"))))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(containsString("At most 1000 ids")));
+    }
+}
@@ -0,0 +1,62 @@
+package userapi.hotkeys;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Cost of {@link HotKeyTracker#record} per access with 1 to 8 threads, on a stream where 20% of the accesses go
+ * to 10 hot ids (the contended case for the sketch counters) and the rest are spread over a million ids.
+ * Not part of the default test run: {@code mvn test -Dtest=HotKeyTrackerBenchmark}.
+ */
+public class HotKeyTrackerBenchmark {
+    private static final int[] THREADS = {1, 2, 4, 8};
+    private static final int OPERATIONS_PER_THREAD = 5_000_000;
+    private static final int STREAM_SIZE = 1 << 20;
+
+    @Test
+    void record_NanosPerAccess() throws Exception {
+        long[] stream = new long[STREAM_SIZE];
+        SplittableRandom random = new SplittableRandom(1);
+        for (int i = 0; i < stream.length; i++) {
+            stream[i] = random.nextInt(5) == 0 ? 1 + random.nextInt(10) : 1_000 + random.nextInt(1_000_000);
+        }
+        HotKeyTracker tracker = new HotKeyTracker(true, 16, 10_000, 30, 4, 1024, System::currentTimeMillis);
+
+        run(tracker, stream, 2);
+        for (int threads : THREADS) {
+            long elapsed = run(tracker, stream, threads);
+            long operations = (long) threads * OPERATIONS_PER_THREAD;
+            System.out.printf("%d threads  %6.1f ns/access per thread  %6.1f M accesses/s%n", threads,
+                    (double) elapsed * threads / operations, operations * 1e3 / elapsed);
+        }
+        System.out.println(tracker.top(HotKeyTracker.Access.GET, 60).getKeys().subList(0, 10));
+    }
+
+    private static long run(HotKeyTracker tracker, long[] stream, int threads) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int offset = t * 7919;
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                    tracker.record(HotKeyTracker.Access.GET, stream[(i + offset) & (STREAM_SIZE - 1)]);
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) worker.join();
+        return System.nanoTime() - begin;
+    }
+}
@@ -0,0 +1,78 @@
+package userapi.hotkeys;
+
+import org.junit.jupiter.api.Test;
+import userapi.dto.HotKeysDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HotKeyTrackerTest {
+
+    @Test
+    void top_SkewedConcurrentTraffic_FindsHotIds() throws Exception {
+        HotKeyTracker tracker = new HotKeyTracker(true, 10, 60_000, 5, 4, 1024, () -> 0L);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int seed = t;
+            threads.add(new Thread(() -> {
+                SplittableRandom random = new SplittableRandom(seed);
+                for (int i = 0; i < 50_000; i++) {
+                    long id = random.nextInt(5) == 0 ? 1 + random.nextInt(10) : 1_000 + random.nextInt(1_000_000);
+                    tracker.record(HotKeyTracker.Access.GET, id);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) thread.join();
+
+        HotKeysDto top = tracker.top(HotKeyTracker.Access.GET, 60);
+        assertEquals(200_000, top.getAccesses());
+        Set<Long> ids = top.getKeys().stream().map(HotKeysDto.HotKey::getId).collect(Collectors.toSet());
+        assertEquals(Set.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L), ids);
+        top.getKeys().forEach(key -> assertTrue(key.getCount() >= 3_000, "Undercounted " + key));
+        assertTrue(tracker.top(HotKeyTracker.Access.UPDATE, 60).getKeys().isEmpty());
+    }
+
+    @Test
+    void top_SlidingWindow_ForgetsOldSubWindows() {
+        AtomicLong clock = new AtomicLong();
+        HotKeyTracker tracker = new HotKeyTracker(true, 4, 1_000, 3, 4, 256, clock::get);
+
+        for (int i = 0; i < 10; i++) tracker.record(HotKeyTracker.Access.UPDATE, 42);
+        clock.set(2_000);
+        for (int i = 0; i < 5; i++) tracker.record(HotKeyTracker.Access.UPDATE, 7);
+
+        assertEquals(List.of(7L), ids(tracker.top(HotKeyTracker.Access.UPDATE, 1)));
+        assertEquals(List.of(42L, 7L), ids(tracker.top(HotKeyTracker.Access.UPDATE, 3)));
+
+        clock.set(3_000);
+        tracker.record(HotKeyTracker.Access.UPDATE, 9);
+        assertEquals(List.of(7L, 9L), ids(tracker.top(HotKeyTracker.Access.UPDATE, 3)));
+    }
+
+    @Test
+    void record_Disabled_CountsNothing() {
+        HotKeyTracker tracker = new HotKeyTracker(false, 4, 1_000, 3, 4, 256, () -> 0L);
+        tracker.record(HotKeyTracker.Access.GET, 1);
+        assertEquals(0, tracker.top(HotKeyTracker.Access.GET, 1).getAccesses());
+    }
+
+    @Test
+    void estimate_NeverUndercounts() {
+        CountMinSketch sketch = new CountMinSketch(4, 64);
+        for (long key = 0; key < 1_000; key++) {
+            for (int i = 0; i <= key % 5; i++) sketch.add(key);
+        }
+        for (long key = 0; key < 1_000; key++) assertTrue(sketch.estimate(key) >= key % 5 + 1);
+    }
+
+    private static List<Long> ids(HotKeysDto top) {
+        return top.getKeys().stream().map(HotKeysDto.HotKey::getId).toList();
+    }
+}
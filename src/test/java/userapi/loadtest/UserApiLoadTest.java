@@ -0,0 +1,258 @@
+package userapi.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import userapi.config.InMemoryKafkaConfig;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Boots the full application on a random port against an embedded H2 database in PostgreSQL mode and an
+ * in-memory Kafka producer, then drives a mixed CRUD workload over HTTP at increasing concurrency.
+ * Latencies are recorded into HDR histograms, reports are written to {@code loadtest.report-dir},
+ * and the test fails when any stage breaks the {@code loadtest.slo.*} thresholds.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({"test", "embedded", "loadtest"})
+@Import(InMemoryKafkaConfig.class)
+public class UserApiLoadTest {
+    private static final Logger logger = LoggerFactory.getLogger(UserApiLoadTest.class);
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.SECONDS.toMicros(60);
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${loadtest.concurrency-levels}")
+    private int[] concurrencyLevels;
+    @Value("${loadtest.warmup-seconds}")
+    private int warmupSeconds;
+    @Value("${loadtest.stage-seconds}")
+    private int stageSeconds;
+    @Value("${loadtest.mix.create}")
+    private int createWeight;
+    @Value("${loadtest.mix.read}")
+    private int readWeight;
+    @Value("${loadtest.mix.update}")
+    private int updateWeight;
+    @Value("${loadtest.mix.delete}")
+    private int deleteWeight;
+    @Value("${loadtest.report-dir}")
+    private Path reportDir;
+    @Value("${loadtest.slo.p99-millis}")
+    private double sloP99Millis;
+    @Value("${loadtest.slo.max-error-rate}")
+    private double sloMaxErrorRate;
+    @Value("${loadtest.slo.min-throughput}")
+    private double sloMinThroughput;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final AtomicLong emailSequence = new AtomicLong();
+
+    enum Operation { CREATE, READ, UPDATE, DELETE }
+
+    record StageResult(int concurrency, long elapsedNanos, Map<Operation, Histogram> histograms, long errors) {
+        long requests() {
+            return histograms.values().stream().mapToLong(Histogram::getTotalCount).sum() + errors;
+        }
+
+        double throughput() {
+            return requests() * 1e9 / elapsedNanos;
+        }
+
+        double errorRate() {
+            return requests() == 0 ? 0 : (double) errors / requests();
+        }
+    }
+
+    @Test
+    void mixedCrudWorkload_MeetsSlo() throws Exception {
+        int maxConcurrency = concurrencyLevels[concurrencyLevels.length - 1];
+        logger.info("Warming up for {}s at concurrency {}...", warmupSeconds, maxConcurrency);
+        runStage(maxConcurrency, warmupSeconds);
+
+        List<StageResult> results = new ArrayList<>();
+        for (int concurrency : concurrencyLevels) {
+            logger.info("Running stage at concurrency {} for {}s...", concurrency, stageSeconds);
+            results.add(runStage(concurrency, stageSeconds));
+        }
+
+        writeReport(results);
+
+        for (StageResult result : results) {
+            assertTrue(result.errorRate() <= sloMaxErrorRate, String.format(
+                    "Concurrency %d: error rate %.4f exceeds %.4f",
+                    result.concurrency(), result.errorRate(), sloMaxErrorRate));
+            assertTrue(result.throughput() >= sloMinThroughput, String.format(
+                    "Concurrency %d: throughput %.1f req/s below %.1f",
+                    result.concurrency(), result.throughput(), sloMinThroughput));
+            result.histograms().forEach((operation, histogram) -> {
+                double p99 = histogram.getValueAtPercentile(99.0) / 1000.0;
+                assertTrue(p99 <= sloP99Millis, String.format(
+                        "Concurrency %d: %s p99 %.2f ms exceeds %.2f ms",
+                        result.concurrency(), operation, p99, sloP99Millis));
+            });
+        }
+    }
+
+    private StageResult runStage(int concurrency, int seconds) throws InterruptedException {
+        Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new Recorder(HIGHEST_TRACKABLE_MICROS, 3));
+        }
+        AtomicLong errors = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        long[] deadline = new long[1];
+
+        for (int i = 0; i < concurrency; i++) {
+            workers.submit(() -> {
+                List<Long> ownedIds = new ArrayList<>();
+                start.await();
+                while (System.nanoTime() < deadline[0]) {
+                    Operation operation = nextOperation(ownedIds.isEmpty());
+                    long startNanos = System.nanoTime();
+                    boolean success;
+                    try {
+                        success = execute(operation, ownedIds);
+                    } catch (IOException e) {
+                        success = false;
+                    }
+                    long elapsedMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+                    if (success) {
+                        recorders.get(operation).recordValue(Math.min(elapsedMicros, HIGHEST_TRACKABLE_MICROS));
+                    } else {
+                        errors.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+
+        long startNanos = System.nanoTime();
+        deadline[0] = startNanos + TimeUnit.SECONDS.toNanos(seconds);
+        start.countDown();
+        workers.shutdown();
+        workers.awaitTermination(seconds + 60L, TimeUnit.SECONDS);
+        long elapsedNanos = System.nanoTime() - startNanos;
+
+        Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+        recorders.forEach((operation, recorder) -> histograms.put(operation, recorder.getIntervalHistogram()));
+        return new StageResult(concurrency, elapsedNanos, histograms, errors.get());
+    }
+
+    private Operation nextOperation(boolean noOwnedUsers) {
+        if (noOwnedUsers) return Operation.CREATE;
+        int roll = ThreadLocalRandom.current().nextInt(createWeight + readWeight + updateWeight + deleteWeight);
+        if ((roll -= createWeight) < 0) return Operation.CREATE;
+        if ((roll -= readWeight) < 0) return Operation.READ;
+        if (roll - updateWeight < 0) return Operation.UPDATE;
+        return Operation.DELETE;
+    }
+
+    private boolean execute(Operation operation, List<Long> ownedIds) throws IOException, InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        switch (operation) {
+            case CREATE -> {
+                HttpResponse<String> response = send(HttpRequest.newBuilder(uri(""))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(userJson())));
+                if (response.statusCode() != 201) return false;
+                String location = response.headers().firstValue("Location").orElseThrow();
+                ownedIds.add(Long.parseLong(location.substring(location.lastIndexOf('/') + 1)));
+                return true;
+            }
+            case READ -> {
+                Long id = ownedIds.get(random.nextInt(ownedIds.size()));
+                return send(HttpRequest.newBuilder(uri("/" + id)).GET()).statusCode() == 200;
+            }
+            case UPDATE -> {
+                Long id = ownedIds.get(random.nextInt(ownedIds.size()));
+                return send(HttpRequest.newBuilder(uri("/" + id + "/update"))
+                        .header("Content-Type", "application/json")
+                        .PUT(HttpRequest.BodyPublishers.ofString(userJson()))).statusCode() == 200;
+            }
+            case DELETE -> {
+                Long id = ownedIds.remove(random.nextInt(ownedIds.size()));
+                return send(HttpRequest.newBuilder(uri("/" + id + "/delete")).DELETE()).statusCode() == 200;
+            }
+        }
+        return false;
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return client.send(request.timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + "/api/users" + path);
+    }
+
+    private String userJson() {
+        long n = emailSequence.incrementAndGet();
+        return String.format("{\"name\":\"load-%d\",\"email\":\"load-%d@test.com\",\"age\":%d}",
+                n, n, 18 + (int) (n % 60));
+    }
+
+    private void writeReport(List<StageResult> results) throws IOException {
+        Files.createDirectories(reportDir);
+        StringBuilder report = new StringBuilder(String.format("%-12s %-8s %10s %12s %10s %10s %10s %10s %10s%n",
+                "concurrency", "op", "count", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+
+        for (StageResult result : results) {
+            double seconds = result.elapsedNanos() / 1e9;
+            for (Map.Entry<Operation, Histogram> entry : result.histograms().entrySet()) {
+                Histogram histogram = entry.getValue();
+                report.append(String.format("%-12d %-8s %10d %12.1f %10.2f %10.2f %10.2f %10.2f %10.2f%n",
+                        result.concurrency(), entry.getKey(), histogram.getTotalCount(),
+                        histogram.getTotalCount() / seconds,
+                        histogram.getValueAtPercentile(50.0) / 1000.0,
+                        histogram.getValueAtPercentile(90.0) / 1000.0,
+                        histogram.getValueAtPercentile(99.0) / 1000.0,
+                        histogram.getValueAtPercentile(99.9) / 1000.0,
+                        histogram.getMaxValue() / 1000.0));
+
+                Path distribution = reportDir.resolve("c" + result.concurrency() + "-" + entry.getKey() + ".hgrm");
+                try (PrintStream out = new PrintStream(Files.newOutputStream(distribution))) {
+                    histogram.outputPercentileDistribution(out, 1000.0);
+                }
+            }
+            report.append(String.format("%-12d %-8s %10d %12.1f errors=%d (%.4f)%n%n",
+                    result.concurrency(), "TOTAL", result.requests(), result.throughput(),
+                    result.errors(), result.errorRate()));
+        }
+
+        Files.writeString(reportDir.resolve("report.txt"), report);
+        logger.info("Load test report:\n{}", report);
+    }
+}
@@ -0,0 +1,135 @@
+package userapi.monitoring.sql;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import userapi.dto.SlowQueryDto;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SlowQueryDetectorTest {
+    private JdbcDataSource h2;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:slowquery;DB_CLOSE_DELAY=-1");
+        try (Connection connection = h2.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS users");
+            statement.execute("CREATE TABLE users (id BIGINT PRIMARY KEY, email VARCHAR(255))");
+            statement.execute("INSERT INTO users VALUES (1, 'a@test.com'), (2, 'b@test.com'), (3, 'c@test.com')");
+        }
+    }
+
+    @Test
+    void recordsStatementAboveThreshold_WithParametersAndRows() throws Exception {
+        SlowQueryDetector detector = new SlowQueryDetector(0, 10, true);
+        SlowQueryDataSource dataSource = new SlowQueryDataSource(h2, detector);
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT * FROM users WHERE id >   ?")) {
+            statement.setLong(1, 1L);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    assertNotNull(resultSet.getString("email"));
+                }
+            }
+        }
+
+        List<SlowQueryDto> slowest = detector.getSlowest();
+        assertEquals(1, slowest.size());
+        assertEquals("SELECT * FROM users WHERE id > ?", slowest.get(0).getSql());
+        assertEquals(List.of("1"), slowest.get(0).getParameters());
+        assertEquals(2, slowest.get(0).getRows());
+        assertEquals(1, slowest.get(0).getCount());
+    }
+
+    @Test
+    void ignoresStatementBelowThreshold() throws Exception {
+        SlowQueryDetector detector = new SlowQueryDetector(60_000, 10, true);
+        SlowQueryDataSource dataSource = new SlowQueryDataSource(h2, detector);
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("UPDATE users SET email = ? WHERE id = ?")) {
+            statement.setString(1, "d@test.com");
+            statement.setLong(2, 1L);
+            assertEquals(1, statement.executeUpdate());
+        }
+
+        assertTrue(detector.getSlowest().isEmpty());
+    }
+
+    @Test
+    void setNull_RecordsNullInsteadOfSqlType() throws Exception {
+        SlowQueryDetector detector = new SlowQueryDetector(0, 10, true);
+        SlowQueryDataSource dataSource = new SlowQueryDataSource(h2, detector);
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("UPDATE users SET email = ? WHERE id = ?")) {
+            statement.setNull(1, Types.VARCHAR);
+            statement.setLong(2, 1L);
+            statement.executeUpdate();
+        }
+
+        assertEquals(Arrays.asList("null", "1"), detector.getSlowest().get(0).getParameters());
+    }
+
+    @Test
+    void executeBatch_PlainStatement_ReportsBatchedSql() throws Exception {
+        SlowQueryDetector detector = new SlowQueryDetector(0, 10, true);
+        SlowQueryDataSource dataSource = new SlowQueryDataSource(h2, detector);
+
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.addBatch("UPDATE users SET email = 'x@test.com' WHERE id = 1");
+            statement.addBatch("UPDATE users SET email = 'y@test.com' WHERE id = 2");
+            statement.executeBatch();
+        }
+
+        List<SlowQueryDto> slowest = detector.getSlowest();
+        assertEquals(1, slowest.size());
+        assertEquals("UPDATE users SET email = ? WHERE id = ?; UPDATE users SET email = ? WHERE id = ?",
+                slowest.get(0).getSql());
+        assertEquals(2, slowest.get(0).getRows());
+    }
+
+    @Test
+    void recordSlow_ParameterCaptureOff_KeepsOnlyTypes() {
+        SlowQueryDetector detector = new SlowQueryDetector(0, 10, false);
+
+        detector.recordSlow("SELECT * FROM users WHERE email = ? AND id = ?", 1_000_000,
+                new Object[]{"a@test.com", 1L}, 1, "test");
+        detector.recordSlow("SELECT * FROM users WHERE email = ?", 1_000_000, new Object[]{null}, 0, "test");
+
+        List<SlowQueryDto> slowest = detector.getSlowest();
+        assertEquals(List.of("<String>", "<Long>"), slowest.stream()
+                .filter(query -> query.getSql().contains("id"))
+                .findFirst().orElseThrow().getParameters());
+        assertTrue(slowest.stream().noneMatch(query -> query.getParameters().contains("a@test.com")));
+    }
+
+    @Test
+    void recordSlow_MoreStatementsThanTopN_KeepsSlowest() {
+        SlowQueryDetector detector = new SlowQueryDetector(0, 2, false);
+
+        detector.recordSlow("SELECT 1 FROM users WHERE id = ?", 3_000_000, null, 0, "test");
+        detector.recordSlow("SELECT 2 FROM users WHERE email = ?", 1_000_000, null, 0, "test");
+        detector.recordSlow("SELECT 3 FROM users WHERE age = ?", 2_000_000, null, 0, "test");
+
+        assertEquals(List.of("SELECT ? FROM users WHERE id = ?", "SELECT ? FROM users WHERE age = ?"),
+                detector.getSlowest().stream().map(SlowQueryDto::getSql).toList());
+    }
+
+    @Test
+    void normalize_ReplacesLiteralsAndCollapsesInLists() {
+        assertEquals("select * from users where email = ? and id in (?)",
+                SlowQueryDetector.normalize("select *\n  from users where email = 'x@y.com' and id in (1, 2, 3)"));
+    }
+}
@@ -0,0 +1,172 @@
+package userapi.producer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import userapi.dto.UserDto;
+import userapi.dto.UserEvent;
+import userapi.handler.exception.EventSpoolFullException;
+import userapi.producer.spool.EventSpool;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class KafkaProducerTest {
+    @Mock
+    private KafkaTemplate<String, UserEvent> kafkaTemplate;
+    @TempDir
+    private Path directory;
+    private EventSpool eventSpool;
+    private KafkaProducer kafkaProducer;
+
+    @BeforeEach
+    void setUp() {
+        eventSpool = new EventSpool(directory, 1 << 16, 1 << 20, false);
+        kafkaProducer = new KafkaProducer(kafkaTemplate, eventSpool, new ObjectMapper(), 10, 1000, 1000);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        eventSpool.close();
+    }
+
+    @Test
+    void sendUser_Healthy_SendsDirectlyKeyedById() {
+        when(kafkaTemplate.send(eq(KafkaProducer.TOPIC), anyString(), any(UserEvent.class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        kafkaProducer.sendUser("USER_CREATED", user(1L, "test@test.com"));
+
+        assertEquals(0, eventSpool.depth());
+        ArgumentCaptor<UserEvent> event = ArgumentCaptor.forClass(UserEvent.class);
+        verify(kafkaTemplate, times(1)).send(eq(KafkaProducer.TOPIC), eq("1"), event.capture());
+        assertEquals("test", event.getValue().getName());
+        assertEquals(20, event.getValue().getAge());
+    }
+
+    @Test
+    void sendUser_BrokerUnavailable_SpoolsAndDrainsInOrder() throws Exception {
+        when(kafkaTemplate.send(eq(KafkaProducer.TOPIC), anyString(), any(UserEvent.class)))
+                .thenThrow(new KafkaException("Send failed", new TimeoutException("metadata")));
+
+        kafkaProducer.sendUser("USER_CREATED", user(1L, "first@test.com"));
+        kafkaProducer.sendUser("USER_DELETED", user(2L, "second@test.com"));
+
+        assertEquals(2, eventSpool.depth());
+        assertFalse(kafkaProducer.getStats().isHealthy());
+        verify(kafkaTemplate, times(1)).send(eq(KafkaProducer.TOPIC), anyString(), any(UserEvent.class));
+
+        CompletableFuture<SendResult<String, UserEvent>> sent = CompletableFuture.completedFuture(null);
+        doReturn(sent).when(kafkaTemplate).send(eq(KafkaProducer.TOPIC), anyString(), any(UserEvent.class));
+        kafkaProducer.drain();
+
+        ArgumentCaptor<String> keys = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<UserEvent> events = ArgumentCaptor.forClass(UserEvent.class);
+        verify(kafkaTemplate, times(3)).send(eq(KafkaProducer.TOPIC), keys.capture(), events.capture());
+        assertEquals("1", keys.getAllValues().get(1));
+        assertEquals("first@test.com", events.getAllValues().get(1).getEmail());
+        assertEquals("2", keys.getAllValues().get(2));
+        assertEquals("second@test.com", events.getAllValues().get(2).getEmail());
+        assertEquals(0, eventSpool.depth());
+        assertTrue(kafkaProducer.getStats().isHealthy());
+    }
+
+    @Test
+    void drain_BrokerStillUnavailable_KeepsEvents() {
+        when(kafkaTemplate.send(eq(KafkaProducer.TOPIC), anyString(), any(UserEvent.class)))
+                .thenThrow(new KafkaException("Send failed"));
+        kafkaProducer.sendUser("USER_CREATED", user(1L, "test@test.com"));
+
+        doReturn(CompletableFuture.failedFuture(new TimeoutException("still down")))
+                .when(kafkaTemplate).send(eq(KafkaProducer.TOPIC), anyString(), any(UserEvent.class));
+        kafkaProducer.drain();
+
+        assertEquals(1, eventSpool.depth());
+        assertFalse(kafkaProducer.getStats().isHealthy());
+    }
+
+    @Test
+    void sendUser_DirectSendFailsLater_ReplaysItBeforeSpooledEvents() {
+        CompletableFuture<SendResult<String, UserEvent>> pending = new CompletableFuture<>();
+        when(kafkaTemplate.send(eq(KafkaProducer.TOPIC), anyString(), any(UserEvent.class))).thenReturn(pending);
+        kafkaProducer.sendUser("USER_CREATED", user(1L, "first@test.com"));
+
+        kafkaProducer.drain();
+        verify(kafkaTemplate, times(1)).send(eq(KafkaProducer.TOPIC), anyString(), any(UserEvent.class));
+
+        pending.completeExceptionally(new TimeoutException("expired"));
+        kafkaProducer.sendUser("USER_UPDATED", user(1L, "second@test.com"));
+        assertEquals(1, eventSpool.depth());
+        assertEquals(2, kafkaProducer.getStats().getDepth());
+
+        doReturn(CompletableFuture.completedFuture(null))
+                .when(kafkaTemplate).send(eq(KafkaProducer.TOPIC), anyString(), any(UserEvent.class));
+        kafkaProducer.drain();
+
+        ArgumentCaptor<UserEvent> events = ArgumentCaptor.forClass(UserEvent.class);
+        verify(kafkaTemplate, times(3)).send(eq(KafkaProducer.TOPIC), eq("1"), events.capture());
+        assertEquals("first@test.com", events.getAllValues().get(1).getEmail());
+        assertEquals("second@test.com", events.getAllValues().get(2).getEmail());
+        assertEquals(0, kafkaProducer.getStats().getDepth());
+        assertTrue(kafkaProducer.getStats().isHealthy());
+    }
+
+    @Test
+    void sendUser_SpoolFullAndBrokerUnavailable_FailsCaller() throws Exception {
+        EventSpool fullSpool = new EventSpool(directory.resolve("full"), 16, 1024, false);
+        KafkaProducer producer = new KafkaProducer(kafkaTemplate, fullSpool, new ObjectMapper(), 10, 50, 1000);
+        when(kafkaTemplate.send(eq(KafkaProducer.TOPIC), anyString(), any(UserEvent.class)))
+                .thenThrow(new KafkaException("Send failed"))
+                .thenReturn(new CompletableFuture<>());
+
+        assertThrows(EventSpoolFullException.class, () -> producer.sendUser("USER_CREATED", user(1L, "test@test.com")));
+
+        verify(kafkaTemplate, times(2)).send(eq(KafkaProducer.TOPIC), eq("1"), any(UserEvent.class));
+        assertEquals(1, producer.getStats().getRejected());
+        fullSpool.close();
+    }
+
+    @Test
+    void sendUsersAndWait_AllAcknowledged_Returns() throws Exception {
+        when(kafkaTemplate.send(eq(KafkaProducer.TOPIC), anyString(), any(UserEvent.class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        kafkaProducer.sendUsersAndWait("USER_DELETED", List.of(user(1L, "first@test.com"), user(2L, "second@test.com")));
+
+        verify(kafkaTemplate, times(2)).send(eq(KafkaProducer.TOPIC), anyString(), any(UserEvent.class));
+        assertEquals(0, kafkaProducer.getStats().getDepth());
+    }
+
+    @Test
+    void sendUsersAndWait_SendFails_ThrowsAndKeepsEventForReplay() {
+        when(kafkaTemplate.send(eq(KafkaProducer.TOPIC), anyString(), any(UserEvent.class)))
+                .thenReturn(CompletableFuture.completedFuture(null))
+                .thenReturn(CompletableFuture.failedFuture(new TimeoutException("expired")));
+
+        assertThrows(KafkaException.class, () -> kafkaProducer.sendUsersAndWait("USER_DELETED",
+                List.of(user(1L, "first@test.com"), user(2L, "second@test.com"))));
+
+        assertEquals(1, kafkaProducer.getStats().getDepth());
+        assertFalse(kafkaProducer.getStats().isHealthy());
+    }
+
+    private static UserDto user(Long id, String email) {
+        return UserDto.builder().id(id).name("test").email(email).age(20).build();
+    }
+}
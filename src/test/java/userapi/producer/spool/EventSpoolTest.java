@@ -0,0 +1,183 @@
+package userapi.producer.spool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EventSpoolTest {
+    private static final int SEGMENT_BYTES = 4096;
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void appendAndPeek_ReturnsRecordsInOrder() throws Exception {
+        try (EventSpool spool = new EventSpool(directory, SEGMENT_BYTES, 1 << 20, false)) {
+            assertTrue(spool.append("1", bytes("first")));
+            assertTrue(spool.append(null, bytes("second")));
+            assertEquals(2, spool.depth());
+
+            assertEquals("1", spool.peek().key());
+            assertEquals("first", string(spool.peek().value()));
+            spool.advance();
+            assertNull(spool.peek().key());
+            assertEquals("second", string(spool.peek().value()));
+            spool.advance();
+
+            assertNull(spool.peek());
+            assertTrue(spool.isEmpty());
+        }
+    }
+
+    @Test
+    void reopen_ResumesFromCheckpoint() throws Exception {
+        try (EventSpool spool = new EventSpool(directory, SEGMENT_BYTES, 1 << 20, false)) {
+            for (int i = 0; i < 5; i++) spool.append(null, bytes("event-" + i));
+            spool.peek();
+            spool.advance();
+            spool.peek();
+            spool.advance();
+            spool.checkpoint();
+        }
+
+        try (EventSpool spool = new EventSpool(directory, SEGMENT_BYTES, 1 << 20, false)) {
+            assertEquals(3, spool.depth());
+            assertEquals("event-2", string(spool.peek().value()));
+        }
+    }
+
+    @Test
+    void reopen_DiscardsTornTail() throws Exception {
+        try (EventSpool spool = new EventSpool(directory, SEGMENT_BYTES, 1 << 20, false)) {
+            spool.append(null, bytes("complete"));
+            spool.append(null, bytes("torn"));
+        }
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.filter(path -> path.getFileName().toString().startsWith("segment-")).findFirst().orElseThrow();
+        }
+        int secondRecord = 8 + 2 + "complete".length();
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{0x7f}), secondRecord + 8 + 3);
+        }
+
+        try (EventSpool spool = new EventSpool(directory, SEGMENT_BYTES, 1 << 20, false)) {
+            assertEquals(1, spool.depth());
+            assertEquals("complete", string(spool.peek().value()));
+            spool.advance();
+            assertNull(spool.peek());
+            assertTrue(spool.append(null, bytes("after-recovery")));
+            assertEquals("after-recovery", string(spool.peek().value()));
+        }
+    }
+
+    @Test
+    void append_RollsSegmentsAndRejectsWhenFull() throws Exception {
+        try (EventSpool spool = new EventSpool(directory, SEGMENT_BYTES, 2 * SEGMENT_BYTES, false)) {
+            byte[] payload = new byte[1000];
+            int accepted = 0;
+            while (spool.append(null, payload)) accepted++;
+
+            assertEquals(2, spool.segmentCount());
+            assertEquals(8, accepted);
+
+            for (int i = 0; i < 4; i++) {
+                spool.peek();
+                spool.advance();
+            }
+            spool.peek();
+            assertEquals(1, spool.segmentCount());
+            assertTrue(spool.append(null, payload));
+        }
+    }
+
+    @Test
+    void peek_SegmentFilledAndRolledAfterCommittedRead_KeepsTailRecords() throws Exception {
+        try (EventSpool spool = new EventSpool(directory, 64, 1 << 20, false)) {
+            spool.append(null, bytes("record-0.."));
+            spool.peek();
+            spool.advance();
+            boolean[] raced = new boolean[1];
+            spool.beforeSealedCheck = () -> {
+                if (raced[0]) return;
+                raced[0] = true;
+                for (int i = 1; i <= 3; i++) assertTrue(spool.append(null, bytes("record-" + i + "..")));
+            };
+
+            for (int i = 1; i <= 3; i++) {
+                assertEquals("record-" + i + "..", string(spool.peek().value()));
+                spool.advance();
+            }
+            assertNull(spool.peek());
+            assertTrue(spool.isEmpty());
+        }
+    }
+
+    @Test
+    void peek_ConcurrentAppendsAcrossRolls_ConsumesEveryRecordInOrder() throws Exception {
+        int writers = 4;
+        int perWriter = 20_000;
+        try (EventSpool spool = new EventSpool(directory, 512, 1L << 30, false)) {
+            ExecutorService executor = Executors.newFixedThreadPool(writers);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> appends = new ArrayList<>();
+            for (int writer = 0; writer < writers; writer++) {
+                String key = Integer.toString(writer);
+                appends.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perWriter; i++) {
+                        assertTrue(spool.append(key, bytes(Integer.toString(i))));
+                    }
+                    return null;
+                }));
+            }
+
+            int[] next = new int[writers];
+            int consumed = 0;
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+            start.countDown();
+            while (consumed < writers * perWriter) {
+                EventSpool.SpoolRecord record = spool.peek();
+                if (record == null) {
+                    assertTrue(System.nanoTime() < deadline, "Consumed only " + consumed + " records");
+                    Thread.onSpinWait();
+                    continue;
+                }
+                int writer = Integer.parseInt(record.key());
+                assertEquals(next[writer]++, Integer.parseInt(string(record.value())), "writer " + writer);
+                spool.advance();
+                consumed++;
+            }
+            for (Future<?> append : appends) append.get();
+            executor.shutdown();
+
+            assertNull(spool.peek());
+            assertTrue(spool.isEmpty());
+            assertEquals(1, spool.segmentCount());
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String string(byte[] value) {
+        return new String(value, StandardCharsets.UTF_8);
+    }
+}
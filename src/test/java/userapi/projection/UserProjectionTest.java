@@ -0,0 +1,166 @@
+package userapi.projection;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.mock.MockConsumerFactory;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import userapi.dto.ProjectionStatsDto;
+import userapi.dto.UserDto;
+import userapi.dto.UserEvent;
+import userapi.event.UserChangedEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UserProjectionTest {
+    private static final String TOPIC = "user-events";
+    private static final TopicPartition P0 = new TopicPartition(TOPIC, 0);
+    private static final TopicPartition P1 = new TopicPartition(TOPIC, 1);
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123456000);
+
+    private final JsonSerializer<UserEvent> serializer = new JsonSerializer<>();
+    private final JsonDeserializer<UserEvent> deserializer = new JsonDeserializer<>(UserEvent.class, false);
+    private MockConsumer<String, UserEvent> consumer;
+
+    @BeforeEach
+    void setUp() {
+        consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        Node node = new Node(0, "localhost", 9092);
+        consumer.updatePartitions(TOPIC, List.of(
+                new PartitionInfo(TOPIC, 0, node, new Node[]{node}, new Node[]{node}),
+                new PartitionInfo(TOPIC, 1, node, new Node[]{node}, new Node[]{node})));
+        consumer.updateBeginningOffsets(Map.of(P0, 0L, P1, 0L));
+    }
+
+    @Test
+    void initialize_ReplaysTopicBeforeServing() {
+        consumer.updateEndOffsets(Map.of(P0, 3L, P1, 1L));
+        UserProjection projection = projection("earliest");
+        projection.initialize();
+        publish(P0, 0, "USER_CREATED", user(1L, "first"));
+        publish(P0, 1, "USER_CREATED", user(2L, "second"));
+        publish(P0, 2, "USER_UPDATED", user(1L, "renamed"));
+        publish(P1, 0, "USER_CREATED", user(3L, "third"));
+
+        assertFalse(projection.isFresh());
+        assertTrue(projection.find(1L).isEmpty());
+
+        projection.pollOnce();
+
+        assertTrue(projection.isFresh());
+        UserDto first = projection.find(1L).orElseThrow();
+        assertEquals("renamed", first.getName());
+        assertEquals("renamed@test.com", first.getEmail());
+        assertEquals(CREATED_AT, first.getCreatedAt());
+        assertTrue(projection.find(3L).isPresent());
+        assertTrue(projection.find(4L).isEmpty());
+
+        ProjectionStatsDto stats = projection.getStats();
+        assertEquals(3, stats.getUsers());
+        assertEquals(4, stats.getApplied());
+        assertEquals(0, stats.getLag());
+        assertEquals(2, stats.getHits());
+        assertEquals(2, stats.getFallbacks());
+    }
+
+    @Test
+    void pollOnce_LagAboveBound_FallsBackUntilCaughtUp() {
+        consumer.updateEndOffsets(Map.of(P0, 1L, P1, 0L));
+        UserProjection projection = projection("earliest");
+        projection.initialize();
+        publish(P0, 0, "USER_CREATED", user(1L, "first"));
+        projection.pollOnce();
+        assertTrue(projection.find(1L).isPresent());
+
+        consumer.updateEndOffsets(Map.of(P0, 10L, P1, 0L));
+        projection.pollOnce();
+
+        assertEquals(9, projection.getStats().getLag());
+        assertFalse(projection.isFresh());
+        assertTrue(projection.find(1L).isEmpty());
+
+        publish(P0, 1, "USER_DELETED", user(1L, "first"));
+        consumer.updateEndOffsets(Map.of(P0, 2L, P1, 0L));
+        projection.pollOnce();
+
+        assertTrue(projection.isFresh());
+        assertTrue(projection.find(1L).isEmpty());
+        assertEquals(0, projection.getStats().getUsers());
+    }
+
+    @Test
+    void initialize_StartOffset_SkipsOlderEvents() {
+        consumer.updateEndOffsets(Map.of(P0, 3L, P1, 3L));
+        UserProjection projection = projection("2");
+        projection.initialize();
+        publish(P0, 0, "USER_CREATED", user(1L, "first"));
+        publish(P0, 1, "USER_CREATED", user(2L, "second"));
+        publish(P0, 2, "USER_CREATED", user(3L, "third"));
+        consumer.addRecord(new ConsumerRecord<>(TOPIC, 1, 2, null, new UserEvent("USER_CREATED", "legacy@test.com")));
+
+        projection.pollOnce();
+
+        assertTrue(projection.isFresh());
+        assertTrue(projection.find(1L).isEmpty());
+        assertTrue(projection.find(2L).isEmpty());
+        assertTrue(projection.find(3L).isPresent());
+        assertEquals(1, projection.getStats().getSkipped());
+    }
+
+    @Test
+    void onUserChanged_SoftDeleted_HiddenUntilDeletedEventApplied() {
+        consumer.updateEndOffsets(Map.of(P0, 1L, P1, 0L));
+        UserProjection projection = projection("earliest");
+        projection.initialize();
+        publish(P0, 0, "USER_CREATED", user(1L, "first"));
+        projection.pollOnce();
+        assertTrue(projection.find(1L).isPresent());
+
+        projection.onUserChanged(new UserChangedEvent(UserChangedEvent.Type.DELETED, user(1L, "first")));
+        assertTrue(projection.find(1L).isEmpty());
+
+        publish(P0, 1, "USER_UPDATED", user(1L, "renamed"));
+        consumer.updateEndOffsets(Map.of(P0, 2L, P1, 0L));
+        projection.pollOnce();
+        assertTrue(projection.find(1L).isEmpty());
+
+        publish(P0, 2, "USER_DELETED", user(1L, "renamed"));
+        publish(P0, 3, "USER_CREATED", user(1L, "recreated"));
+        consumer.updateEndOffsets(Map.of(P0, 4L, P1, 0L));
+        projection.pollOnce();
+        assertEquals("recreated", projection.find(1L).orElseThrow().getName());
+    }
+
+    private UserProjection projection(String startOffset) {
+        return new UserProjection(new MockConsumerFactory<>(() -> consumer), TOPIC, startOffset, 5, 60_000, 10, true);
+    }
+
+    /**
+     * Adds the event as the producer would send it, through a JSON round trip, keyed by user id.
+     */
+    private void publish(TopicPartition partition, long offset, String type, UserDto user) {
+        UserEvent event = deserializer.deserialize(TOPIC, serializer.serialize(TOPIC, UserEvent.of(type, user)));
+        consumer.addRecord(new ConsumerRecord<>(TOPIC, partition.partition(), offset, user.getId().toString(), event));
+    }
+
+    private static UserDto user(Long id, String name) {
+        return UserDto.builder()
+                .id(id)
+                .name(name)
+                .email(name + "@test.com")
+                .age(20)
+                .createdAt(CREATED_AT)
+                .updatedAt(CREATED_AT)
+                .build();
+    }
+}
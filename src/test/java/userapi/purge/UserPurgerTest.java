@@ -0,0 +1,166 @@
+package userapi.purge;
+
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import userapi.config.InMemoryKafkaConfig;
+import userapi.dto.UserDto;
+import userapi.dto.UserEvent;
+import userapi.handler.exception.UserNotFoundException;
+import userapi.repository.UserRepository;
+import userapi.service.UserService;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "soft-delete.enabled=true",
+        "soft-delete.purge.batch-size=500",
+        "soft-delete.purge.idle-interval-ms=3600000"
+})
+@ActiveProfiles({"test", "embedded"})
+@Import(InMemoryKafkaConfig.class)
+public class UserPurgerTest {
+    private static final Logger logger = LoggerFactory.getLogger(UserPurgerTest.class);
+
+    @Autowired
+    private UserPurger userPurger;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private MockProducer<String, UserEvent> mockProducer;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void deleteUser_SoftDelete_HiddenUntilPurged() {
+        UserDto user = userService.createUser(user(UUID.randomUUID() + "@test.com"));
+
+        userService.deleteUser(user.getId());
+
+        assertThrows(UserNotFoundException.class, () -> userService.getUserById(user.getId()));
+        assertFalse(userRepository.existsByEmail(user.getEmail()));
+        assertEquals(1, count(user.getId()));
+        assertEquals(0, deletedEvents(Set.of(user.getId())));
+
+        while (userPurger.purgeBatch() > 0) {
+            // drain the backlog
+        }
+
+        assertEquals(0, count(user.getId()));
+        assertEquals(1, deletedEvents(Set.of(user.getId())));
+    }
+
+    @Test
+    void createUser_EmailOfSoftDeletedUser_ReclaimsRow() {
+        String email = UUID.randomUUID() + "@test.com";
+        UserDto first = userService.createUser(user(email));
+        userService.deleteUser(first.getId());
+
+        UserDto second = userService.createUser(user(email));
+
+        assertNotEquals(first.getId(), second.getId());
+        assertEquals(email, userService.getUserById(second.getId()).getEmail());
+        assertEquals(0, count(first.getId()));
+        assertEquals(1, deletedEvents(Set.of(first.getId())));
+    }
+
+    @Test
+    void updateUser_EmailOfSoftDeletedUser_ReclaimsRow() {
+        String email = UUID.randomUUID() + "@test.com";
+        UserDto deleted = userService.createUser(user(email));
+        userService.deleteUser(deleted.getId());
+        UserDto other = userService.createUser(user(UUID.randomUUID() + "@test.com"));
+
+        UserDto updated = userService.updateUser(other.getId(), user(email));
+
+        assertEquals(email, updated.getEmail());
+        assertEquals(email, userService.getUserById(other.getId()).getEmail());
+        assertEquals(0, count(deleted.getId()));
+        assertEquals(1, deletedEvents(Set.of(deleted.getId())));
+    }
+
+    @Test
+    void reclaim_TransactionRolledBack_KeepsRowAndSendsNothing() {
+        String email = UUID.randomUUID() + "@test.com";
+        UserDto deleted = userService.createUser(user(email));
+        userService.deleteUser(deleted.getId());
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            userPurger.reclaim(List.of(email));
+            assertEquals(0, deletedEvents(Set.of(deleted.getId())));
+            status.setRollbackOnly();
+        });
+
+        assertEquals(1, count(deleted.getId()));
+        assertEquals(0, deletedEvents(Set.of(deleted.getId())));
+    }
+
+    @Test
+    void purgeBatch_LargeBacklog_DrainsInBoundedBatches() {
+        int rows = 10_000;
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batch = new ArrayList<>();
+        String prefix = UUID.randomUUID().toString();
+        for (int i = 0; i < rows; i++) {
+            batch.add(new Object[]{"bulk", prefix + "-" + i + "@test.com", 30, now, now, now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (name, email, age, created_at, updated_at, deleted_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", batch);
+        Set<Long> ids = jdbcTemplate.queryForList("SELECT id FROM users WHERE email LIKE ?", Long.class, prefix + "%")
+                .stream().collect(Collectors.toSet());
+
+        long start = System.nanoTime();
+        int purged;
+        int batches = 0;
+        do {
+            purged = userPurger.purgeBatch();
+            assertTrue(purged <= 500);
+            batches++;
+        } while (purged > 0);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        double throughput = rows / seconds;
+        logger.info("Purged {} rows in {} batches, {} rows/s", rows, batches - 1, String.format("%.0f", throughput));
+
+        assertEquals(0L, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE email LIKE ?", Long.class,
+                prefix + "%"));
+        assertEquals(rows, deletedEvents(ids));
+        assertTrue(throughput > 1_000, "Purge throughput " + throughput + " rows/s");
+    }
+
+    private long count(long id) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE id = ?", Long.class, id);
+    }
+
+    private long deletedEvents(Set<Long> ids) {
+        List<ProducerRecord<String, UserEvent>> history = mockProducer.history();
+        return history.stream()
+                .filter(record -> "USER_DELETED".equals(record.value().getEvent()))
+                .filter(record -> ids.contains(record.value().getId()))
+                .count();
+    }
+
+    private static UserDto user(String email) {
+        return UserDto.builder().name("test").email(email).age(20).build();
+    }
+}
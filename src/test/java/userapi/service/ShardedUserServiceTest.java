@@ -0,0 +1,231 @@
+package userapi.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import userapi.dto.RebalanceResultDto;
+import userapi.dto.ShardStatsDto;
+import userapi.dto.UserDto;
+import userapi.event.UserChangedEvent;
+import userapi.handler.exception.EmailExistsException;
+import userapi.handler.exception.UserNotFoundException;
+import userapi.producer.KafkaProducer;
+import userapi.sharding.EmailDirectory;
+import userapi.sharding.ShardIdGenerator;
+import userapi.sharding.ShardRebalancer;
+import userapi.sharding.ShardRouter;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ShardedUserServiceTest {
+    @Mock
+    private KafkaProducer kafkaProducer;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    private final List<String> urls = new ArrayList<>();
+    private ShardRouter shardRouter;
+    private ShardedUserService userService;
+
+    @BeforeEach
+    void setUp() {
+        String prefix = UUID.randomUUID().toString();
+        for (int i = 0; i < 3; i++) urls.add("jdbc:h2:mem:shard" + i + "-" + prefix + ";DB_CLOSE_DELAY=-1");
+        open(2);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        shardRouter.close();
+        for (String url : urls) new JdbcTemplate(dataSource(url)).execute("SHUTDOWN");
+    }
+
+    @Test
+    void createUser_SpreadsUsersOverShardsAndRoutesById() {
+        List<UserDto> created = createUsers(200);
+
+        List<ShardStatsDto> stats = userService.getShardStats();
+        assertEquals(2, stats.size());
+        assertEquals(200, stats.get(0).getUsers() + stats.get(1).getUsers());
+        assertTrue(stats.get(0).getUsers() > 50 && stats.get(1).getUsers() > 50);
+
+        for (UserDto user : created) {
+            assertEquals(user.getEmail(), userService.getUserById(user.getId()).getEmail());
+        }
+        verify(kafkaProducer, times(200)).sendUser(eq("USER_CREATED"), any());
+        verify(eventPublisher, times(200)).publishEvent(any(UserChangedEvent.class));
+    }
+
+    @Test
+    void createUser_EmailExistsOnAnyShard() {
+        userService.createUser(user("same@test.com"));
+
+        assertThrows(EmailExistsException.class, () -> userService.createUser(user("SAME@test.com")));
+        assertEquals(1, userService.getShardStats().stream().mapToLong(ShardStatsDto::getUsers).sum());
+    }
+
+    @Test
+    void createUser_ClaimLeftByCrash_TakenOverAfterGracePeriod() {
+        shardRouter.directory().update("INSERT INTO user_email_directory (email, user_id, claimed_at) VALUES (?, ?, ?)",
+                "orphan@test.com", 42L, Timestamp.valueOf(LocalDateTime.now().minusHours(1)));
+        shardRouter.directory().update("INSERT INTO user_email_directory (email, user_id, claimed_at) VALUES (?, ?, ?)",
+                "pending@test.com", 43L, Timestamp.valueOf(LocalDateTime.now()));
+
+        UserDto created = userService.createUser(user("orphan@test.com"));
+
+        assertEquals("orphan@test.com", userService.getUserById(created.getId()).getEmail());
+        assertThrows(EmailExistsException.class, () -> userService.createUser(user("pending@test.com")));
+        assertThrows(EmailExistsException.class, () -> userService.createUser(user("orphan@test.com")));
+    }
+
+    @Test
+    void updateUser_ChangesEmailAndReleasesOldOne() {
+        UserDto first = userService.createUser(user("first@test.com"));
+        userService.createUser(user("second@test.com"));
+
+        UserDto updated = userService.updateUser(first.getId(), user("renamed@test.com"));
+
+        assertEquals("renamed@test.com", updated.getEmail());
+        assertEquals("renamed@test.com", userService.getUserById(first.getId()).getEmail());
+        verify(kafkaProducer).sendUser("USER_UPDATED", updated);
+        assertThrows(EmailExistsException.class,
+                () -> userService.updateUser(first.getId(), user("second@test.com")));
+        assertDoesNotThrow(() -> userService.createUser(user("first@test.com")));
+    }
+
+    @Test
+    void deleteUser_RemovesRowAndEmail() {
+        UserDto user = userService.createUser(user("delete@test.com"));
+
+        userService.deleteUser(user.getId());
+
+        assertThrows(UserNotFoundException.class, () -> userService.getUserById(user.getId()));
+        assertDoesNotThrow(() -> userService.createUser(user("delete@test.com")));
+        verify(kafkaProducer).sendUser(eq("USER_DELETED"), argThat(deleted -> deleted.getId().equals(user.getId())));
+    }
+
+    @Test
+    void getUsersByIds_FansOutAndKeepsRequestOrder() {
+        List<UserDto> created = createUsers(20);
+        List<Long> expected = new ArrayList<>(created.stream().map(UserDto::getId).toList());
+        Collections.reverse(expected);
+        List<Long> ids = new ArrayList<>(expected);
+        ids.add(1, -1L);
+        ids.add(expected.get(0));
+
+        List<UserDto> found = userService.getUsersByIds(ids);
+
+        assertEquals(expected, found.stream().map(UserDto::getId).toList());
+    }
+
+    @Test
+    void rebalance_MovesBucketsToNewShardWithoutLosingUsers() throws Exception {
+        List<UserDto> created = createUsers(300);
+        shardRouter.close();
+        open(3);
+
+        ShardRebalancer rebalancer = new ShardRebalancer(shardRouter);
+        RebalanceResultDto plan = rebalancer.plan();
+        assertTrue(plan.isDryRun());
+        assertEquals(341, plan.getMoves().size());
+        assertEquals(0, userService.getShardStats().get(2).getUsers());
+
+        RebalanceResultDto result = rebalancer.rebalance();
+
+        assertEquals(341, result.getMovedBuckets());
+        List<ShardStatsDto> stats = userService.getShardStats();
+        assertEquals(List.of(342, 341, 341), stats.stream().map(ShardStatsDto::getBuckets).toList());
+        assertEquals(300, stats.stream().mapToLong(ShardStatsDto::getUsers).sum());
+        assertEquals(result.getMovedUsers(), stats.get(2).getUsers());
+        for (UserDto user : created) {
+            assertEquals(user.getEmail(), userService.getUserById(user.getId()).getEmail());
+        }
+        assertTrue(rebalancer.plan().getMoves().isEmpty());
+    }
+
+    @Test
+    void rebalance_AfterInterruptedMoves_CompletesThemWithoutDuplicates() throws Exception {
+        List<UserDto> created = createUsers(300);
+        shardRouter.close();
+        open(3);
+        List<RebalanceResultDto.BucketMove> moves = new ShardRebalancer(shardRouter).plan().getMoves().stream()
+                .filter(move -> countBucket(move.getFromShard(), move.getBucket()) > 0)
+                .limit(2)
+                .toList();
+        RebalanceResultDto.BucketMove copiedOnly = moves.get(0);
+        RebalanceResultDto.BucketMove assigned = moves.get(1);
+        for (RebalanceResultDto.BucketMove move : moves) {
+            copyBucket(move);
+            shardRouter.directory().update("INSERT INTO shard_bucket_moves (bucket, from_shard, to_shard) VALUES (?, ?, ?)",
+                    move.getBucket(), move.getFromShard(), move.getToShard());
+        }
+        shardRouter.directory().update("UPDATE shard_buckets SET shard = ? WHERE bucket = ?",
+                assigned.getToShard(), assigned.getBucket());
+        shardRouter.close();
+        open(3);
+
+        RebalanceResultDto result = new ShardRebalancer(shardRouter).rebalance();
+
+        assertEquals(2, result.getResumedMoves());
+        assertEquals(341, result.getResumedMoves() + result.getMovedBuckets());
+        assertEquals(0, countBucket(copiedOnly.getFromShard(), copiedOnly.getBucket()));
+        assertEquals(0, countBucket(assigned.getFromShard(), assigned.getBucket()));
+        assertTrue(countBucket(assigned.getToShard(), assigned.getBucket()) > 0);
+        assertEquals(300, userService.getShardStats().stream().mapToLong(ShardStatsDto::getUsers).sum());
+        assertEquals(0, shardRouter.directory().queryForObject("SELECT COUNT(*) FROM shard_bucket_moves", Integer.class));
+        for (UserDto user : created) {
+            assertEquals(user.getEmail(), userService.getUserById(user.getId()).getEmail());
+        }
+    }
+
+    private void open(int shards) {
+        List<DataSource> dataSources = urls.subList(0, shards).stream().map(ShardedUserServiceTest::dataSource).toList();
+        shardRouter = new ShardRouter(dataSources, 0, 4);
+        userService = new ShardedUserService(shardRouter, new ShardIdGenerator(0), new EmailDirectory(shardRouter, 60000),
+                kafkaProducer, eventPublisher);
+    }
+
+    private void copyBucket(RebalanceResultDto.BucketMove move) {
+        List<Object[]> rows = shardRouter.shard(move.getFromShard()).query(
+                "SELECT id, bucket, name, email, age, created_at, updated_at FROM sharded_users WHERE bucket = ?",
+                (resultSet, rowNum) -> new Object[]{resultSet.getLong(1), resultSet.getInt(2), resultSet.getString(3),
+                        resultSet.getString(4), resultSet.getInt(5), resultSet.getTimestamp(6), resultSet.getTimestamp(7)},
+                move.getBucket());
+        shardRouter.shard(move.getToShard()).batchUpdate("INSERT INTO sharded_users "
+                + "(id, bucket, name, email, age, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    private int countBucket(int shard, int bucket) {
+        return shardRouter.shard(shard).queryForObject("SELECT COUNT(*) FROM sharded_users WHERE bucket = ?",
+                Integer.class, bucket);
+    }
+
+    private List<UserDto> createUsers(int count) {
+        return IntStream.range(0, count).mapToObj(i -> userService.createUser(user("user" + i + "@test.com"))).toList();
+    }
+
+    private static UserDto user(String email) {
+        return UserDto.builder().name("test").email(email).age(20).build();
+    }
+
+    private static DataSource dataSource(String url) {
+        return new DriverManagerDataSource(url, "sa", "");
+    }
+}
@@ -0,0 +1,68 @@
+package userapi.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleFlightTest {
+
+    @Test
+    void load_ConcurrentCallersOfSameKey_ShareOneLoad() throws Exception {
+        SingleFlight<Long, String> singleFlight = new SingleFlight<>(Duration.ofSeconds(5));
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> singleFlight.load(1L, () -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            await(release);
+            return "loaded";
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> singleFlight.load(1L, () -> {
+            loads.incrementAndGet();
+            return "second";
+        }));
+        Thread.sleep(100);
+        release.countDown();
+
+        assertEquals("loaded", first.get(5, TimeUnit.SECONDS));
+        assertEquals("loaded", second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void load_SharedLoadStuck_WaiterLoadsOnItsOwnAfterTimeout() throws Exception {
+        SingleFlight<Long, String> singleFlight = new SingleFlight<>(Duration.ofMillis(100));
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> stuck = CompletableFuture.supplyAsync(() -> singleFlight.load(1L, () -> {
+            loading.countDown();
+            await(release);
+            return "stuck";
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        long start = System.nanoTime();
+        assertEquals("own", singleFlight.load(1L, () -> "own"));
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+
+        release.countDown();
+        assertEquals("stuck", stuck.get(5, TimeUnit.SECONDS));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
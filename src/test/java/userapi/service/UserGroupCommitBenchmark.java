@@ -0,0 +1,97 @@
+package userapi.service;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import userapi.config.InMemoryKafkaConfig;
+import userapi.dto.UserDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Signup throughput and latency of the per-request {@link UserServiceImpl#createUser} against
+ * {@link GroupCommitUserService#createUser} for 1 to 512 concurrent callers.
+ * Not part of the default test run: {@code mvn test -Dtest=UserGroupCommitBenchmark}.
+ */
+@SpringBootTest(properties = "group-commit.enabled=true")
+@ActiveProfiles({"test", "embedded"})
+@Import(InMemoryKafkaConfig.class)
+public class UserGroupCommitBenchmark {
+    private static final int[] CALLERS = {1, 4, 16, 64, 256, 512};
+    private static final long DURATION_MS = 3_000;
+
+    @Autowired
+    private UserServiceImpl perRequest;
+    @Autowired
+    private GroupCommitUserService groupCommit;
+    @Autowired
+    private UserInsertBatcher userInsertBatcher;
+
+    private final AtomicInteger sequence = new AtomicInteger();
+
+    @Test
+    void createUser_ThroughputByCallers() throws Exception {
+        run(perRequest, 16, 1_000);
+        run(groupCommit, 16, 1_000);
+        for (int callers : CALLERS) {
+            report("per-request", callers, run(perRequest, callers, DURATION_MS));
+            long batches = userInsertBatcher.getBatches();
+            long rows = userInsertBatcher.getRows();
+            report("group-commit", callers, run(groupCommit, callers, DURATION_MS));
+            System.out.printf("%-13s %4d callers  %.1f rows/batch%n", "", callers,
+                    (double) (userInsertBatcher.getRows() - rows) / Math.max(1, userInsertBatcher.getBatches() - batches));
+        }
+    }
+
+    private Result run(UserService userService, int callers, long durationMs) throws Exception {
+        Recorder recorder = new Recorder(3);
+        AtomicLong completed = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(durationMs);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    while (System.nanoTime() < deadline) {
+                        long begin = System.nanoTime();
+                        userService.createUser(UserDto.builder()
+                                .name("bench")
+                                .email("bench" + sequence.incrementAndGet() + "@test.com")
+                                .age(30)
+                                .build());
+                        recorder.recordValue(System.nanoTime() - begin);
+                        completed.incrementAndGet();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread thread : threads) thread.join();
+        long elapsed = System.nanoTime() - begin;
+        return new Result(completed.get() * 1e9 / elapsed, recorder.getIntervalHistogram());
+    }
+
+    private static void report(String label, int callers, Result result) {
+        System.out.printf("%-13s %4d callers  %8.0f creates/s  p50 %7.2f ms  p99 %7.2f ms%n", label, callers,
+                result.throughput(), result.latency().getValueAtPercentile(50) / 1e6,
+                result.latency().getValueAtPercentile(99) / 1e6);
+    }
+
+    private record Result(double throughput, Histogram latency) {
+    }
+}
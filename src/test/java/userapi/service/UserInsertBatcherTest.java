@@ -0,0 +1,169 @@
+package userapi.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import userapi.config.InMemoryKafkaConfig;
+import userapi.dto.UserDto;
+import userapi.handler.exception.EmailExistsException;
+import userapi.handler.exception.GroupCommitTimeoutException;
+import userapi.producer.KafkaProducer;
+import userapi.purge.UserPurger;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(properties = {
+        "group-commit.enabled=true",
+        "group-commit.max-batch-size=16",
+        "group-commit.max-wait-ms=50"
+})
+@ActiveProfiles({"test", "embedded"})
+@Import(InMemoryKafkaConfig.class)
+public class UserInsertBatcherTest {
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserInsertBatcher userInsertBatcher;
+
+    @Test
+    void createUser_ConcurrentCallers_SharedBatchesWithOwnIds() throws Exception {
+        assertInstanceOf(GroupCommitUserService.class, userService);
+        long batchesBefore = userInsertBatcher.getBatches();
+
+        List<UserDto> created = createConcurrently(40, i -> UUID.randomUUID() + "@test.com");
+
+        Set<Long> ids = new HashSet<>();
+        for (UserDto user : created) {
+            assertTrue(ids.add(user.getId()));
+            UserDto stored = userService.getUserById(user.getId());
+            assertEquals(user.getEmail(), stored.getEmail());
+            assertEquals(user.getAge(), stored.getAge());
+        }
+        assertTrue(userInsertBatcher.getBatches() - batchesBefore < 40,
+                "Expected concurrent creates to share batches");
+    }
+
+    @Test
+    void createUser_DuplicateEmails_OnlyDuplicatesFail() throws Exception {
+        String existing = UUID.randomUUID() + "@test.com";
+        userService.createUser(user(existing, 20));
+        String repeated = UUID.randomUUID() + "@test.com";
+
+        List<Future<UserDto>> futures = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            futures.add(executor.submit(() -> userService.createUser(user(existing, 21))));
+            futures.add(executor.submit(() -> userService.createUser(user(repeated, 22))));
+            futures.add(executor.submit(() -> userService.createUser(user(repeated, 23))));
+            futures.add(executor.submit(() -> userService.createUser(user(UUID.randomUUID() + "@test.com", 24))));
+
+            int conflicts = 0;
+            int successes = 0;
+            for (Future<UserDto> future : futures) {
+                try {
+                    assertNotNull(future.get(10, TimeUnit.SECONDS).getId());
+                    successes++;
+                } catch (ExecutionException e) {
+                    assertInstanceOf(EmailExistsException.class, e.getCause());
+                    conflicts++;
+                }
+            }
+            assertEquals(2, successes);
+            assertEquals(2, conflicts);
+            ExecutionException existingFailure = assertThrows(ExecutionException.class, () -> futures.get(0).get());
+            assertInstanceOf(EmailExistsException.class, existingFailure.getCause());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void createUser_InvalidRowInBatch_OtherCallersSucceed() throws Exception {
+        List<Future<UserDto>> futures = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            futures.add(executor.submit(() -> userService.createUser(user(UUID.randomUUID() + "@test.com", 30))));
+            futures.add(executor.submit(() -> userService.createUser(user(UUID.randomUUID() + "@test.com", null))));
+            futures.add(executor.submit(() -> userService.createUser(user(UUID.randomUUID() + "@test.com", 31))));
+
+            assertNotNull(futures.get(0).get(10, TimeUnit.SECONDS).getId());
+            assertThrows(ExecutionException.class, () -> futures.get(1).get(10, TimeUnit.SECONDS));
+            assertNotNull(futures.get(2).get(10, TimeUnit.SECONDS).getId());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void createUser_NotCommittedInTime_FailsWithTimeoutAndIsLeftOutOfBatch() {
+        UserInsertBatcher stalled = mock(UserInsertBatcher.class);
+        CompletableFuture<UserDto> pending = new CompletableFuture<>();
+        when(stalled.submit(any())).thenReturn(pending);
+        KafkaProducer kafkaProducer = mock(KafkaProducer.class);
+        GroupCommitUserService service = new GroupCommitUserService(null, stalled, kafkaProducer,
+                mock(ApplicationEventPublisher.class), 50);
+
+        assertThrows(GroupCommitTimeoutException.class, () -> service.createUser(user("late@test.com", 20)));
+
+        assertTrue(pending.isCompletedExceptionally());
+        verifyNoInteractions(kafkaProducer);
+    }
+
+    @Test
+    void submit_FlusherDiesUnexpectedly_FailsWaitingCallers() throws Exception {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenThrow(new NoClassDefFoundError("simulated"));
+        UserInsertBatcher batcher = new UserInsertBatcher(mock(JdbcTemplate.class), transactionManager,
+                mock(UserPurger.class), 16, 50);
+        batcher.start();
+        try {
+            CompletableFuture<UserDto> first = batcher.submit(user("first@test.com", 20));
+            CompletableFuture<UserDto> second = batcher.submit(user("second@test.com", 21));
+
+            assertThrows(ExecutionException.class, () -> first.get(10, TimeUnit.SECONDS));
+            assertThrows(ExecutionException.class, () -> second.get(10, TimeUnit.SECONDS));
+            assertTrue(batcher.submit(user("third@test.com", 22)).isCompletedExceptionally());
+        } finally {
+            batcher.stop();
+        }
+    }
+
+    private List<UserDto> createConcurrently(int callers, java.util.function.IntFunction<String> email) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<UserDto>> futures = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                int index = i;
+                futures.add(executor.submit(() -> userService.createUser(user(email.apply(index), 20 + index))));
+            }
+            List<UserDto> created = new ArrayList<>();
+            for (Future<UserDto> future : futures) created.add(future.get(10, TimeUnit.SECONDS));
+            return created;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static UserDto user(String email, Integer age) {
+        return UserDto.builder().name("test").email(email).age(age).build();
+    }
+}
@@ -6,16 +6,30 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import userapi.dto.UserDto;
 import userapi.handler.exception.EmailExistsException;
 import userapi.handler.exception.UserNotFoundException;
 import userapi.mapper.UserMapper;
 import userapi.model.User;
 import userapi.producer.KafkaProducer;
+import userapi.purge.UserPurger;
 import userapi.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -28,6 +42,10 @@ public class UserServiceImplTest {
     private UserMapper userMapper;
     @Mock
     private KafkaProducer kafkaProducer;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private UserPurger userPurger;
     @InjectMocks
     private UserServiceImpl userService;
     private User user;
@@ -38,8 +56,8 @@ public class UserServiceImplTest {
 
     @BeforeEach
     void setUp() {
-        user = new User(1L, "test", "test@test@gmail.com", 20, LocalDateTime.now(), LocalDateTime.now());
-        updatedUser = new User(1L, "admin", "admin@admin.com", 30, LocalDateTime.now(), LocalDateTime.now());
+        user = new User(1L, "test", "test@test@gmail.com", 20, LocalDateTime.now(), LocalDateTime.now(), null);
+        updatedUser = new User(1L, "admin", "admin@admin.com", 30, LocalDateTime.now(), LocalDateTime.now(), null);
 
         userDto = UserDto.builder()
                 .id(1L)
@@ -75,7 +93,19 @@ public class UserServiceImplTest {
         assertEquals(userDto, savedUser);
         verify(userRepository, times(1)).existsByEmail(userDto.getEmail());
         verify(userRepository, times(1)).save(user);
-        verify(kafkaProducer, times(1)).sendUser(anyString(), anyString());
+        verify(kafkaProducer, times(1)).sendUser(anyString(), any(UserDto.class));
+    }
+
+    @Test
+    void createUser_InTransaction_SendsEventAfterCommit() {
+        when(userRepository.existsByEmail(userDto.getEmail())).thenReturn(false);
+        when(userMapper.toEntity(userDto)).thenReturn(user);
+        when(userRepository.save(user)).thenReturn(user);
+        when(userMapper.toDto(user)).thenReturn(userDto);
+
+        inTransaction(() -> userService.createUser(userDto), "USER_CREATED");
+
+        verify(kafkaProducer, times(1)).sendUser("USER_CREATED", userDto);
     }
 
     @Test
@@ -106,11 +136,75 @@ public class UserServiceImplTest {
         verify(userRepository, times(1)).findById(userId);
     }
 
+    @Test
+    void getUserById_ConcurrentCalls_ShareOneLoad() throws Exception {
+        when(userMapper.toDto(user)).thenReturn(userDto);
+
+        List<UserDto> results = burst(16, () -> Optional.of(user));
+
+        assertEquals(16, results.size());
+        results.forEach(result -> assertSame(userDto, result));
+        verify(userRepository, times(1)).findById(userId);
+        verify(userMapper, times(1)).toDto(user);
+    }
+
+    @Test
+    void getUserById_ConcurrentCallsForMissingUser_AllGetException() throws Exception {
+        ExecutionException e = assertThrows(ExecutionException.class, () -> burst(16, Optional::empty));
+
+        assertInstanceOf(UserNotFoundException.class, e.getCause());
+        verify(userRepository, times(1)).findById(userId);
+    }
+
+    @Test
+    void getUserById_AfterBurst_LoadsAgain() throws Exception {
+        when(userMapper.toDto(user)).thenReturn(userDto);
+
+        burst(8, () -> Optional.of(user));
+        burst(8, () -> Optional.of(user));
+
+        verify(userRepository, times(2)).findById(userId);
+    }
+
+    /**
+     * Starts {@code callers} concurrent lookups of {@code userId}, holds the repository call until every caller is
+     * waiting, then releases it and returns all results; the first failure is rethrown.
+     */
+    private List<UserDto> burst(int callers, Supplier<Optional<User>> row) throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(userRepository.findById(userId)).thenAnswer(invocation -> {
+            release.await();
+            return row.get();
+        });
+        List<Thread> threads = new CopyOnWriteArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<UserDto>> futures = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                futures.add(executor.submit(() -> {
+                    threads.add(Thread.currentThread());
+                    return userService.getUserById(userId);
+                }));
+            }
+            while (threads.size() < callers || threads.stream().anyMatch(thread ->
+                    thread.getState() != Thread.State.WAITING && thread.getState() != Thread.State.TIMED_WAITING)) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+            List<UserDto> results = new ArrayList<>();
+            for (Future<UserDto> future : futures) results.add(future.get(10, TimeUnit.SECONDS));
+            return results;
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
     @Test
     void updateUser_Success() {
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
         when(userRepository.existsByEmail(updatedUser.getEmail())).thenReturn(false);
-        when(userRepository.save(any(User.class))).thenReturn(updatedUser);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(updatedUser);
         when(userMapper.toDto(updatedUser)).thenReturn(updatedUserDto);
 
         UserDto updatedDto = userService.updateUser(userId, updatedUserDto);
@@ -119,7 +213,20 @@ public class UserServiceImplTest {
         assertEquals(updatedUserDto, updatedDto);
         verify(userRepository, times(1)).findById(userId);
         verify(userRepository, times(1)).existsByEmail(updatedUser.getEmail());
-        verify(userRepository, times(1)).save(any(User.class));
+        verify(userRepository, times(1)).saveAndFlush(any(User.class));
+        verify(kafkaProducer, times(1)).sendUser("USER_UPDATED", updatedUserDto);
+    }
+
+    @Test
+    void updateUser_InTransaction_SendsEventAfterCommit() {
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userRepository.existsByEmail(updatedUser.getEmail())).thenReturn(false);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(updatedUser);
+        when(userMapper.toDto(updatedUser)).thenReturn(updatedUserDto);
+
+        inTransaction(() -> userService.updateUser(userId, updatedUserDto), "USER_UPDATED");
+
+        verify(kafkaProducer, times(1)).sendUser("USER_UPDATED", updatedUserDto);
     }
 
     @Test
@@ -147,7 +254,28 @@ public class UserServiceImplTest {
         userService.deleteUser(userId);
         verify(userRepository, times(1)).findById(userId);
         verify(userRepository, times(1)).deleteById(userId);
-        verify(kafkaProducer, times(1)).sendUser(anyString(),anyString());
+        verify(kafkaProducer, times(1)).sendUser(eq("USER_DELETED"), any());
+    }
+
+    @Test
+    void deleteUser_InTransaction_SendsEventAfterCommit() {
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userMapper.toDto(user)).thenReturn(userDto);
+
+        inTransaction(() -> userService.deleteUser(userId), "USER_DELETED");
+
+        verify(kafkaProducer, times(1)).sendUser("USER_DELETED", userDto);
+    }
+
+    @Test
+    void deleteUser_SoftDelete_MarksRowWithoutKafkaSend() {
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userPurger.isEnabled()).thenReturn(true);
+
+        userService.deleteUser(userId);
+        verify(userPurger, times(1)).markDeleted(userId);
+        verify(userRepository, never()).deleteById(any());
+        verify(kafkaProducer, never()).sendUser(anyString(), any());
     }
 
     @Test
@@ -157,4 +285,19 @@ public class UserServiceImplTest {
         assertThrows(UserNotFoundException.class, () -> userService.deleteUser(userId));
         verify(userRepository, never()).deleteById(any());
     }
+
+    /**
+     * Runs {@code work} with transaction synchronization active and checks nothing is sent before the commit.
+     */
+    private void inTransaction(Runnable work, String event) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            work.run();
+            verify(kafkaProducer, never()).sendUser(eq(event), any());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
 }
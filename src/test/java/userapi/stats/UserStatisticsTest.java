@@ -0,0 +1,99 @@
+package userapi.stats;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import userapi.config.InMemoryKafkaConfig;
+import userapi.dto.UserDto;
+import userapi.dto.UserStatsDto;
+import userapi.service.UserService;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles({"test", "embedded"})
+@Import(InMemoryKafkaConfig.class)
+public class UserStatisticsTest {
+    @Autowired
+    private UserStatistics userStatistics;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void onUserChanged_CreateUpdateDelete_AdjustsAggregates() {
+        UserStatsDto before = userStatistics.getStats(1);
+
+        UserDto created = userService.createUser(user(20));
+        UserStatsDto afterCreate = userStatistics.getStats(1);
+        assertEquals(before.getTotal() + 1, afterCreate.getTotal());
+        assertEquals(before.getAgeBuckets().get("18-24") + 1, afterCreate.getAgeBuckets().get("18-24"));
+        assertEquals(today(before) + 1, today(afterCreate));
+
+        userService.updateUser(created.getId(), user(40));
+        UserStatsDto afterUpdate = userStatistics.getStats(1);
+        assertEquals(afterCreate.getTotal(), afterUpdate.getTotal());
+        assertEquals(before.getAgeBuckets().get("18-24"), afterUpdate.getAgeBuckets().get("18-24"));
+        assertEquals(before.getAgeBuckets().get("35-44") + 1, afterUpdate.getAgeBuckets().get("35-44"));
+
+        userService.deleteUser(created.getId());
+        UserStatsDto afterDelete = userStatistics.getStats(1);
+        assertEquals(before.getTotal(), afterDelete.getTotal());
+        assertEquals(before.getAgeBuckets().get("35-44"), afterDelete.getAgeBuckets().get("35-44"));
+        assertEquals(today(before), today(afterDelete));
+    }
+
+    @Test
+    void reconcile_RowWrittenBehindItsBack_CorrectedAfterSecondRun() {
+        jdbcTemplate.update("INSERT INTO users (name, email, age, created_at, updated_at) "
+                + "VALUES ('test', ?, 70, TIMESTAMP '2001-01-01 12:00:00', TIMESTAMP '2001-01-01 12:00:00')",
+                UUID.randomUUID() + "@test.com");
+        long corrections = userStatistics.getStats(1).getCorrections();
+
+        Map<String, Long> first = userStatistics.reconcile();
+        assertEquals(1L, first.get("day:2001-01-01"));
+        assertEquals(1L, first.get("age:65+"));
+        assertEquals(corrections, userStatistics.getStats(1).getCorrections());
+
+        Map<String, Long> second = userStatistics.reconcile();
+        assertEquals(1L, second.get("day:2001-01-01"));
+        assertTrue(userStatistics.getStats(1).getCorrections() > corrections);
+
+        Map<String, Long> third = userStatistics.reconcile();
+        assertFalse(third.containsKey("day:2001-01-01"));
+        assertFalse(third.containsKey("age:65+"));
+    }
+
+    @Test
+    void getStats_Endpoint_ReturnsRequestedDays() throws Exception {
+        mockMvc.perform(get("/api/users/stats").param("days", "7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").isNumber())
+                .andExpect(jsonPath("$.ageBuckets['65+']").isNumber())
+                .andExpect(jsonPath("$.dailySignups.length()").value(7));
+    }
+
+    private static long today(UserStatsDto stats) {
+        return stats.getDailySignups().get(LocalDate.now());
+    }
+
+    private static UserDto user(int age) {
+        return UserDto.builder().name("test").email(UUID.randomUUID() + "@test.com").age(age).build();
+    }
+}
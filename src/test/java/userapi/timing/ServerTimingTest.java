@@ -0,0 +1,116 @@
+package userapi.timing;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import userapi.config.InMemoryKafkaConfig;
+
+import java.lang.management.ManagementFactory;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "server-timing.slow-threshold-ms=60000")
+@AutoConfigureMockMvc
+@ActiveProfiles({"test", "embedded"})
+@Import(InMemoryKafkaConfig.class)
+@ExtendWith(OutputCaptureExtension.class)
+public class ServerTimingTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ServerTimingFilter serverTimingFilter;
+
+    @AfterEach
+    void tearDown() {
+        serverTimingFilter.update(true, 60_000L, 1.0);
+    }
+
+    @Test
+    void createUser_ReportsEveryPhase() throws Exception {
+        createUser(UUID.randomUUID() + "@test.com")
+                .andExpect(status().isCreated())
+                .andExpect(header().string(ServerTiming.HEADER, allOf(
+                        containsString("controller;dur="),
+                        containsString("exists;dur="),
+                        containsString("insert;dur="),
+                        containsString("mapper;dur="),
+                        containsString("hateoas;dur="),
+                        containsString("kafka;dur="))));
+    }
+
+    @Test
+    void createUser_EmailExists_ErrorResponseCarriesTiming() throws Exception {
+        String email = UUID.randomUUID() + "@test.com";
+        createUser(email).andExpect(status().isCreated());
+
+        createUser(email)
+                .andExpect(status().isConflict())
+                .andExpect(header().string(ServerTiming.HEADER, containsString("exists;dur=")));
+    }
+
+    @Test
+    void createUser_SwitchedOffAtRuntime_NoHeader() throws Exception {
+        mockMvc.perform(put("/api/monitoring/server-timing").param("enabled", "false"))
+                .andExpect(status().isOk());
+
+        createUser(UUID.randomUUID() + "@test.com")
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(ServerTiming.HEADER));
+    }
+
+    @Test
+    void createUser_Slow_LogsOneStructuredLine(CapturedOutput output) throws Exception {
+        serverTimingFilter.update(null, 0L, 1.0);
+
+        createUser(UUID.randomUUID() + "@test.com").andExpect(status().isCreated());
+
+        assertTrue(output.getOut().contains("Slow request method=POST path=/api/users status=201 total_ms="));
+        assertTrue(output.getOut().contains("timing=\"controller;dur="));
+    }
+
+    @Test
+    void stop_ActiveRecorder_AllocatesNothing() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        ServerTiming.begin();
+        try {
+            for (int i = 0; i < 100_000; i++) ServerTiming.stop(Phase.MAPPER, ServerTiming.start());
+            long before = threads.getThreadAllocatedBytes(thread);
+            for (int i = 0; i < 100_000; i++) ServerTiming.stop(Phase.MAPPER, ServerTiming.start());
+            long allocated = threads.getThreadAllocatedBytes(thread) - before;
+            assertTrue(allocated < 1024, "Allocated " + allocated + " bytes");
+        } finally {
+            ServerTiming.end();
+        }
+    }
+
+    @Test
+    void appendMillis_PadsFraction() {
+        StringBuilder millis = new StringBuilder();
+        ServerTiming.appendMillis(millis, 12_034_567);
+        assertEquals("12.034", millis.toString());
+    }
+
+    private ResultActions createUser(String email) throws Exception {
+        return mockMvc.perform(post("/api/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"test\",\"email\":\"" + email + "\",\"age\":20}"));
+    }
+}